@@ -0,0 +1,62 @@
+package it.sephiroth.android.wheel.benchmark;
+
+import it.sephiroth.android.wheel.easing.Easing;
+import it.sephiroth.android.wheel.easing.Sine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scalar and batch evaluation of {@link Sine#easeInOut}, over the same inputs used by the wheel ticks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EasingBenchmark {
+
+	@Param({ "18", "60" })
+	int ticks;
+
+	final Sine sine = new Sine();
+	final Easing easing = sine;
+	float[] input;
+	float[] output;
+	float width = 720;
+
+	@Setup
+	public void setup() {
+		input = new float[ticks];
+		output = new float[ticks];
+		for ( int i = 0; i < ticks; i++ ) {
+			input[i] = ( (float) i / ticks ) * width;
+		}
+	}
+
+	@Benchmark
+	public void scalar( Blackhole bh ) {
+		for ( int i = 0; i < ticks; i++ ) {
+			bh.consume( (float) easing.easeInOut( input[i], 0, 1.0, width ) );
+		}
+	}
+
+	@Benchmark
+	public float[] batch() {
+		sine.easeInOut( input, 0, 1.0f, width, output, ticks );
+		return output;
+	}
+}
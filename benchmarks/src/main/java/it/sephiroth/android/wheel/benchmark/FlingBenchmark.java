@@ -0,0 +1,48 @@
+package it.sephiroth.android.wheel.benchmark;
+
+import it.sephiroth.android.wheel.physics.FlingPhysics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A whole fling, stepped at a fixed frame rate with a synthetic clock until the physics settles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FlingBenchmark {
+
+	@Param({ "60", "120" })
+	int refreshRate;
+
+	@Param({ "3000", "12000" })
+	int velocity;
+
+	final FlingPhysics physics = new FlingPhysics( 320 );
+
+	@Benchmark
+	public int fling() {
+		final long frame = 1000000000L / refreshRate;
+		long time = 0;
+
+		physics.fling( time, 0, velocity, -1440 * 2, 1440 * 2 );
+		while ( physics.computeOffset( time += frame ) ) {
+			// step until finished
+		}
+		return physics.getCurrX();
+	}
+}
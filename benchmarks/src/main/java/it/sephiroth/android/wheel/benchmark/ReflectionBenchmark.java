@@ -0,0 +1,72 @@
+package it.sephiroth.android.wheel.benchmark;
+
+import it.sephiroth.android.wheel.utils.ReflectionUtils;
+import it.sephiroth.android.wheel.utils.ReflectionUtils.ConstructorInvoker;
+import it.sephiroth.android.wheel.utils.ReflectionUtils.ReflectionException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ReflectionUtils#newInstance(String, Class[], Object...)}, as used to create optional platform classes, compared with a
+ * {@link ConstructorInvoker} resolved once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReflectionBenchmark {
+
+	public static class Target {
+
+		final Object parent;
+		final int value;
+
+		public Target( Object parent, int value ) {
+			this.parent = parent;
+			this.value = value;
+		}
+	}
+
+	static final Class<?>[] TYPES = { Object.class, int.class };
+	static final String CLASS_NAME = Target.class.getName();
+	static final String MISSING_CLASS_NAME = CLASS_NAME + "Missing";
+
+	final Object parent = new Object();
+	final ConstructorInvoker<Object> invoker = ReflectionUtils.getConstructorInvoker( CLASS_NAME, TYPES );
+
+	@Benchmark
+	public Object newInstance() throws ReflectionException {
+		return ReflectionUtils.newInstance( CLASS_NAME, TYPES, parent, 200 );
+	}
+
+	@Benchmark
+	public Object newInstanceMissing() {
+		try {
+			return ReflectionUtils.newInstance( MISSING_CLASS_NAME, TYPES, parent, 200 );
+		} catch ( ReflectionException e ) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object invoker() throws ReflectionException {
+		return invoker.newInstance( parent, 200 );
+	}
+
+	@Benchmark
+	public Object invokerMissing() {
+		return ReflectionUtils.getConstructorInvoker( MISSING_CLASS_NAME, TYPES );
+	}
+}
@@ -0,0 +1,99 @@
+package it.sephiroth.android.wheel.benchmark;
+
+import it.sephiroth.android.wheel.easing.Sine;
+import it.sephiroth.android.wheel.model.WheelModel;
+import it.sephiroth.android.wheel.utils.WheelMath;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The per frame math of the wheel: tick placement, tick value, snap into the slots and a whole scroll step of the
+ * {@link WheelModel}. Every invocation walks the same fixed sweep of scroll positions, so the results are comparable across
+ * versions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WheelMathBenchmark {
+
+	static final int SWEEP = 64;
+
+	@Param({ "18", "60" })
+	int ticks;
+
+	@Param({ "720" })
+	int width;
+
+	final Sine easing = new Sine();
+	float tickSpace;
+	float[] ticksX;
+	float[] positions;
+	float[] scales;
+	int[] sweep;
+	final WheelModel model = new WheelModel();
+
+	@Setup
+	public void setup() {
+		tickSpace = (float) width / ticks;
+		ticksX = new float[ticks];
+		positions = new float[ticks];
+		scales = new float[ticks];
+
+		model.setLayout( width, ticks, 2 );
+
+		// scroll positions across a couple of rotations, in both directions
+		sweep = new int[SWEEP];
+		for ( int i = 0; i < SWEEP; i++ ) {
+			sweep[i] = ( i - SWEEP / 2 ) * ( width * 2 / SWEEP ) + i % 7;
+		}
+	}
+
+	@Benchmark
+	public void computeTicks( Blackhole bh ) {
+		for ( int i = 0; i < SWEEP; i++ ) {
+			bh.consume( WheelMath.computeTicks( sweep[i], width, ticks, easing, ticksX, positions, scales ) );
+		}
+	}
+
+	@Benchmark
+	public void snapDistance( Blackhole bh ) {
+		for ( int i = 0; i < SWEEP; i++ ) {
+			bh.consume( WheelMath.getSnapDistance( sweep[i], tickSpace, ( i & 1 ) == 0 ) );
+		}
+	}
+
+	@Benchmark
+	public void tickValue( Blackhole bh ) {
+		for ( int i = 0; i < SWEEP; i++ ) {
+			bh.consume( WheelMath.getTickValue( sweep[i], width, ticks, tickSpace ) );
+		}
+	}
+
+	@Benchmark
+	public void modelScroll( Blackhole bh ) {
+		// drag over the whole range and past the bounds, where the rubber band applies
+		model.setPosition( model.getMinX() - width / 2 );
+		for ( int i = 0; i < SWEEP; i++ ) {
+			model.setPosition( model.computeScroll( -width * 6 / SWEEP ) );
+			bh.consume( model.getValue() );
+			bh.consume( model.getTickValue() );
+		}
+		bh.consume( model.getSnapDistance() );
+	}
+}
@@ -0,0 +1,174 @@
+package it.sephiroth.android.wheel.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Deterministic tests of the {@link FlingPhysics}, stepped frame by frame by a fake {@link TimeSource}.
+ */
+public class FlingPhysicsTest {
+
+	static final float PPI = 320;
+	static final float FRICTION = FlingPhysics.DEFAULT_FRICTION;
+	static final long FRAME = 16666667L;
+
+	/** Deceleration of the physics, in pixels per second squared. */
+	static final float DECELERATION = 9.80665f * 39.37f * PPI * FRICTION;
+
+	FakeTimeSource mTime;
+	FlingPhysics mPhysics;
+
+	@Before
+	public void setUp() {
+		mTime = new FakeTimeSource( 1000000000L );
+		mPhysics = new FlingPhysics( PPI );
+		mPhysics.setFriction( FRICTION );
+	}
+
+	@Test
+	public void flingTravelsTheDecelerationDistance() {
+		final int velocity = 4000;
+		final int distance = (int) ( velocity * velocity / ( 2 * DECELERATION ) );
+
+		mPhysics.fling( mTime.nanoTime(), 100, velocity, Integer.MIN_VALUE, Integer.MAX_VALUE );
+		assertEquals( 100 + distance, mPhysics.getFinalX() );
+
+		int last = 100;
+		while ( step() ) {
+			assertTrue( "the fling went back", mPhysics.getCurrX() >= last );
+			last = mPhysics.getCurrX();
+		}
+		assertEquals( 100 + distance, mPhysics.getCurrX() );
+
+		mPhysics.fling( mTime.nanoTime(), 100, -velocity, Integer.MIN_VALUE, Integer.MAX_VALUE );
+		while ( step() ) {}
+		assertEquals( 100 - distance, mPhysics.getCurrX() );
+	}
+
+	@Test
+	public void flingLastsUntilTheVelocityIsZero() {
+		final int velocity = 4000;
+		final long duration = (long) ( velocity / DECELERATION * 1000000000L );
+		final long start = mTime.nanoTime();
+
+		mPhysics.fling( start, 0, velocity, Integer.MIN_VALUE, Integer.MAX_VALUE );
+
+		mTime.set( start + duration / 2 );
+		assertEquals( velocity / 2f, mPhysics.getCurrVelocity( mTime.nanoTime() ), 1 );
+		assertTrue( mPhysics.computeOffset( mTime.nanoTime() ) );
+		assertFalse( mPhysics.isFinished() );
+
+		mTime.set( start + duration + 1000000L );
+		assertTrue( mPhysics.computeOffset( mTime.nanoTime() ) );
+		assertTrue( mPhysics.isFinished() );
+		assertEquals( 0, mPhysics.getCurrVelocity( mTime.nanoTime() ), 0 );
+		assertFalse( mPhysics.computeOffset( mTime.nanoTime() ) );
+	}
+
+	@Test
+	public void scrollLastsTheGivenDuration() {
+		final long start = mTime.nanoTime();
+		mPhysics.scroll( start, 0, 300, 250 );
+
+		// decelerate curve, 1 - ( 1 - 0.8 )^2 of the distance
+		mTime.set( start + 200000000L );
+		mPhysics.computeOffset( mTime.nanoTime() );
+		assertEquals( 288, mPhysics.getCurrX() );
+
+		mTime.set( start + 249000000L );
+		mPhysics.computeOffset( mTime.nanoTime() );
+		assertFalse( mPhysics.isFinished() );
+
+		mTime.set( start + 250000000L );
+		mPhysics.computeOffset( mTime.nanoTime() );
+		assertTrue( mPhysics.isFinished() );
+		assertEquals( 300, mPhysics.getCurrX() );
+	}
+
+	@Test
+	public void flingSettlesOnTheBound() {
+		final int velocity = 4000;
+		final long duration = (long) ( velocity / DECELERATION * 1000000000L );
+		final long start = mTime.nanoTime();
+
+		mPhysics.fling( start, 0, velocity, -200, 200 );
+		assertEquals( 200, mPhysics.getFinalX() );
+
+		while ( step() ) {
+			assertTrue( "the fling went past the bound", mPhysics.getCurrX() <= 200 );
+		}
+		assertEquals( 200, mPhysics.getCurrX() );
+		assertTrue( "the fling did not stop on the bound", mTime.nanoTime() - start < duration );
+
+		mPhysics.fling( mTime.nanoTime(), 0, -velocity, -200, 200 );
+		while ( step() ) {
+			assertTrue( "the fling went past the bound", mPhysics.getCurrX() >= -200 );
+		}
+		assertEquals( -200, mPhysics.getCurrX() );
+	}
+
+	@Test
+	public void setStartTimeShiftsTheAnimation() {
+		final long start = mTime.nanoTime();
+		final long frame = start + FRAME / 2;
+
+		FlingPhysics reference = new FlingPhysics( PPI );
+		reference.setFriction( FRICTION );
+		reference.fling( start, 0, 3000, Integer.MIN_VALUE, Integer.MAX_VALUE );
+
+		// started between two frames, then aligned to the next one
+		mPhysics.fling( start, 0, 3000, Integer.MIN_VALUE, Integer.MAX_VALUE );
+		mPhysics.setStartTime( frame );
+
+		mTime.set( frame );
+		mPhysics.computeOffset( mTime.nanoTime() );
+		assertEquals( 0, mPhysics.getCurrX() );
+		assertEquals( 3000, mPhysics.getCurrVelocity( mTime.nanoTime() ), 0 );
+
+		for ( int i = 1; i <= 20; i++ ) {
+			mTime.set( frame + i * FRAME );
+			mPhysics.computeOffset( mTime.nanoTime() );
+			reference.computeOffset( start + i * FRAME );
+			assertEquals( "frame " + i, reference.getCurrX(), mPhysics.getCurrX() );
+		}
+	}
+
+	/**
+	 * Advance the time by one frame and compute the position.
+	 * 
+	 * @return false once the animation is finished
+	 */
+	private boolean step() {
+		mTime.advance( FRAME );
+		return mPhysics.computeOffset( mTime.nanoTime() ) && !mPhysics.isFinished();
+	}
+
+	/**
+	 * Time source moved by hand.
+	 */
+	static final class FakeTimeSource implements TimeSource {
+
+		private long mNow;
+
+		FakeTimeSource( long now ) {
+			mNow = now;
+		}
+
+		void set( long now ) {
+			mNow = now;
+		}
+
+		void advance( long nanos ) {
+			mNow += nanos;
+		}
+
+		@Override
+		public long nanoTime() {
+			return mNow;
+		}
+	}
+}
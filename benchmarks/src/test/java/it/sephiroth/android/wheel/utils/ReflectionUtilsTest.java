@@ -0,0 +1,66 @@
+package it.sephiroth.android.wheel.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the lookup cache of the {@link ReflectionUtils}: resolved and failed lookups are both cached, the failed ones in a
+ * bounded cache, and {@link ReflectionUtils#clearCache()} forgets them all.
+ */
+public class ReflectionUtilsTest {
+
+	static final String MISSING_CLASS = "it.sephiroth.android.wheel.utils.MissingClass";
+
+	@Before
+	public void setUp() {
+		ReflectionUtils.clearCache();
+	}
+
+	@After
+	public void tearDown() {
+		ReflectionUtils.clearCache();
+	}
+
+	@Test
+	public void lookupsAreCached() {
+		assertNotNull( ReflectionUtils.getMethodInvoker( String.class, "length" ) );
+		assertNotNull( ReflectionUtils.getMethodInvoker( String.class, "length" ) );
+		assertEquals( 1, ReflectionUtils.getResolvedCount() );
+
+		assertNull( ReflectionUtils.getMethodInvoker( String.class, "missingMethod" ) );
+		assertNull( ReflectionUtils.getMethodInvoker( String.class, "missingMethod" ) );
+		assertEquals( 1, ReflectionUtils.getFailedCount() );
+	}
+
+	@Test
+	public void clearCacheForgetsResolvedAndFailedLookups() {
+		assertNotNull( ReflectionUtils.getConstructorInvoker( StringBuilder.class.getName(), String.class ) );
+		assertNotNull( ReflectionUtils.getMethodInvoker( String.class, "length" ) );
+		assertNull( ReflectionUtils.getConstructorInvoker( MISSING_CLASS ) );
+		assertNull( ReflectionUtils.getMethodInvoker( String.class, "missingMethod" ) );
+		assertEquals( 3, ReflectionUtils.getResolvedCount() );
+		assertEquals( 2, ReflectionUtils.getFailedCount() );
+
+		ReflectionUtils.clearCache();
+		assertEquals( 0, ReflectionUtils.getResolvedCount() );
+		assertEquals( 0, ReflectionUtils.getFailedCount() );
+	}
+
+	@Test
+	public void failedLookupsAreBounded() {
+		for ( int i = 0; i < ReflectionUtils.MAX_CACHED_FAILURES * 2; i++ ) {
+			assertNull( ReflectionUtils.getConstructorInvoker( MISSING_CLASS + i ) );
+			assertNull( ReflectionUtils.getMethodInvoker( String.class, "missingMethod" + i ) );
+		}
+		assertEquals( ReflectionUtils.MAX_CACHED_FAILURES, ReflectionUtils.getFailedCount() );
+
+		// evicted, the failure is looked up again
+		assertNull( ReflectionUtils.getConstructorInvoker( MISSING_CLASS + 0 ) );
+		assertEquals( ReflectionUtils.MAX_CACHED_FAILURES, ReflectionUtils.getFailedCount() );
+	}
+}
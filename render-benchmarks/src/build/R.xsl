@@ -0,0 +1,51 @@
+<?xml version="1.0" encoding="UTF-8"?>
+<!--
+	Generates the R class of the library from res/values/attrs.xml, the way aapt does for the styleables: one id per attribute,
+	one id array per styleable and the index of every attribute inside its styleable.
+-->
+<xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+	<xsl:output method="text" encoding="UTF-8" />
+
+	<xsl:template match="/resources">
+		<xsl:text>package it.sephiroth.android.wheel;&#10;&#10;</xsl:text>
+		<xsl:text>/** Generated from res/values/attrs.xml, do not edit. */&#10;</xsl:text>
+		<xsl:text>public final class R {&#10;&#10;</xsl:text>
+
+		<xsl:text>&#9;public static final class attr {&#10;</xsl:text>
+		<xsl:for-each select="declare-styleable/attr">
+			<xsl:text>&#9;&#9;public static final int </xsl:text>
+			<xsl:value-of select="@name" />
+			<xsl:text> = </xsl:text>
+			<xsl:call-template name="id" />
+			<xsl:text>;&#10;</xsl:text>
+		</xsl:for-each>
+		<xsl:text>&#9;}&#10;&#10;</xsl:text>
+
+		<xsl:text>&#9;public static final class styleable {&#10;</xsl:text>
+		<xsl:for-each select="declare-styleable">
+			<xsl:variable name="styleable" select="@name" />
+			<xsl:text>&#9;&#9;public static final int[] </xsl:text>
+			<xsl:value-of select="$styleable" />
+			<xsl:text> = { </xsl:text>
+			<xsl:for-each select="attr">
+				<xsl:if test="position() &gt; 1">
+					<xsl:text>, </xsl:text>
+				</xsl:if>
+				<xsl:text>attr.</xsl:text>
+				<xsl:value-of select="@name" />
+			</xsl:for-each>
+			<xsl:text> };&#10;</xsl:text>
+			<xsl:for-each select="attr">
+				<xsl:text>&#9;&#9;public static final int </xsl:text>
+				<xsl:value-of select="concat( $styleable, '_', @name, ' = ', position() - 1 )" />
+				<xsl:text>;&#10;</xsl:text>
+			</xsl:for-each>
+		</xsl:for-each>
+		<xsl:text>&#9;}&#10;}&#10;</xsl:text>
+	</xsl:template>
+
+	<!-- aapt assigns the attribute ids in the 0x7f01 block (2130771968), in declaration order -->
+	<xsl:template name="id">
+		<xsl:value-of select="2130771968 + count( preceding::attr )" />
+	</xsl:template>
+</xsl:stylesheet>
@@ -0,0 +1,95 @@
+package it.sephiroth.android.wheel.benchmark.render;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * Canvas counting the draw calls issued by the views.
+ */
+public class CountingCanvas extends Canvas {
+
+	private int mDrawCalls;
+
+	public CountingCanvas( Bitmap bitmap ) {
+		super( bitmap );
+	}
+
+	public int getDrawCalls() {
+		return mDrawCalls;
+	}
+
+	public void resetDrawCalls() {
+		mDrawCalls = 0;
+	}
+
+	@Override
+	public void drawBitmap( Bitmap bitmap, Matrix matrix, Paint paint ) {
+		mDrawCalls++;
+		super.drawBitmap( bitmap, matrix, paint );
+	}
+
+	@Override
+	public void drawBitmap( Bitmap bitmap, float left, float top, Paint paint ) {
+		mDrawCalls++;
+		super.drawBitmap( bitmap, left, top, paint );
+	}
+
+	@Override
+	public void drawBitmap( Bitmap bitmap, Rect src, Rect dst, Paint paint ) {
+		mDrawCalls++;
+		super.drawBitmap( bitmap, src, dst, paint );
+	}
+
+	@Override
+	public void drawBitmap( Bitmap bitmap, Rect src, RectF dst, Paint paint ) {
+		mDrawCalls++;
+		super.drawBitmap( bitmap, src, dst, paint );
+	}
+
+	@Override
+	public void drawBitmapMesh( Bitmap bitmap, int meshWidth, int meshHeight, float[] verts, int vertOffset, int[] colors,
+			int colorOffset, Paint paint ) {
+		mDrawCalls++;
+		super.drawBitmapMesh( bitmap, meshWidth, meshHeight, verts, vertOffset, colors, colorOffset, paint );
+	}
+
+	@Override
+	public void drawRect( RectF rect, Paint paint ) {
+		mDrawCalls++;
+		super.drawRect( rect, paint );
+	}
+
+	@Override
+	public void drawRect( Rect r, Paint paint ) {
+		mDrawCalls++;
+		super.drawRect( r, paint );
+	}
+
+	@Override
+	public void drawRect( float left, float top, float right, float bottom, Paint paint ) {
+		mDrawCalls++;
+		super.drawRect( left, top, right, bottom, paint );
+	}
+
+	@Override
+	public void drawRoundRect( RectF rect, float rx, float ry, Paint paint ) {
+		mDrawCalls++;
+		super.drawRoundRect( rect, rx, ry, paint );
+	}
+
+	@Override
+	public void drawPaint( Paint paint ) {
+		mDrawCalls++;
+		super.drawPaint( paint );
+	}
+
+	@Override
+	public void drawColor( int color ) {
+		mDrawCalls++;
+		super.drawColor( color );
+	}
+}
@@ -0,0 +1,42 @@
+package it.sephiroth.android.wheel.benchmark.render;
+
+import java.util.Arrays;
+
+/**
+ * Per frame samples of a single benchmark case.
+ */
+public class FrameStats {
+
+	private final String mName;
+	private final long[] mDrawTimes;
+	private long mDrawCalls;
+	private long mAllocatedBytes;
+	private int mFrames;
+
+	public FrameStats( String name, int frames ) {
+		mName = name;
+		mDrawTimes = new long[frames];
+	}
+
+	public void add( long drawTime, int drawCalls, long allocatedBytes ) {
+		mDrawTimes[mFrames++] = drawTime;
+		mDrawCalls += drawCalls;
+		mAllocatedBytes += allocatedBytes;
+	}
+
+	private double percentile( long[] sorted, double p ) {
+		return sorted[Math.min( (int) ( p * mFrames ), mFrames - 1 )] / 1000.0;
+	}
+
+	public static String header() {
+		return String.format( "%-44s %10s %10s %10s %12s %14s", "case", "p50 us", "p90 us", "max us", "calls/frame", "bytes/frame" );
+	}
+
+	@Override
+	public String toString() {
+		long[] sorted = Arrays.copyOf( mDrawTimes, mFrames );
+		Arrays.sort( sorted );
+		return String.format( "%-44s %10.1f %10.1f %10.1f %12.1f %14.1f", mName, percentile( sorted, 0.5 ), percentile( sorted, 0.9 ),
+				percentile( sorted, 1 ), (double) mDrawCalls / mFrames, (double) mAllocatedBytes / mFrames );
+	}
+}
@@ -0,0 +1,149 @@
+package it.sephiroth.android.wheel.benchmark.render;
+
+import it.sephiroth.android.wheel.view.Wheel;
+import it.sephiroth.android.wheel.view.WheelRadio;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.notification.Failure;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.view.View;
+import android.view.View.MeasureSpec;
+
+/**
+ * Headless render benchmark of {@link Wheel} and {@link WheelRadio}. Every case lays out a view at a given size, then drives a
+ * scripted value sweep and draws one frame per value into a bitmap, using the Robolectric native graphics. Reports draw time
+ * percentiles, draw calls and allocated bytes per frame.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, manifest = Config.NONE)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class RenderBenchmark {
+
+	@SuppressWarnings("restriction")
+	static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	static final int WARMUP_FRAMES = 120;
+	static final int FRAMES = 480;
+
+	static final int[][] SIZES = { { 320, 60 }, { 720, 120 }, { 1440, 200 } };
+	static final int[] TICKS = { 18, 60 };
+	static final int[] ROTATIONS = { 2, 6 };
+	static final int[] RENDER_MODES = { Wheel.TICKS_RENDER_DEFAULT, Wheel.TICKS_RENDER_ATLAS, Wheel.TICKS_RENDER_MESH };
+	static final String[] RENDER_MODE_NAMES = { "default", "atlas", "mesh" };
+	static final boolean[] STATIC_LAYER = { false, true };
+	static final int[] SMALL_TICKS = { 25, 100 };
+
+	public static void main( String[] args ) {
+		Result result = JUnitCore.runClasses( RenderBenchmark.class );
+		for ( Failure failure : result.getFailures() ) {
+			System.err.println( failure.getTrace() );
+		}
+		System.exit( result.wasSuccessful() ? 0 : 1 );
+	}
+
+	@Test
+	public void wheel() {
+		Context context = RuntimeEnvironment.getApplication();
+		System.out.println( FrameStats.header() );
+
+		for ( int[] size : SIZES ) {
+			for ( int ticks : TICKS ) {
+				for ( int rotations : ROTATIONS ) {
+					for ( int mode = 0; mode < RENDER_MODES.length; mode++ ) {
+						for ( boolean staticLayer : STATIC_LAYER ) {
+							Wheel wheel = new Wheel( context );
+							wheel.setTicks( ticks );
+							wheel.setWheelScaleFactor( rotations );
+							wheel.setTicksRenderMode( RENDER_MODES[mode] );
+							wheel.setStaticLayerEnabled( staticLayer );
+							layout( wheel, size[0], size[1] );
+
+							String name = String.format( "wheel %dx%d ticks=%d rot=%d %s%s", size[0], size[1], ticks, rotations,
+									RENDER_MODE_NAMES[mode], staticLayer ? " layer" : "" );
+							System.out.println( run( name, wheel, size ) );
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void wheelRadio() {
+		Context context = RuntimeEnvironment.getApplication();
+		System.out.println( FrameStats.header() );
+
+		for ( int[] size : SIZES ) {
+			for ( int smallTicks : SMALL_TICKS ) {
+				WheelRadio radio = new WheelRadio( context );
+				radio.setTicksNumber( smallTicks, 4 );
+				layout( radio, size[0], size[1] );
+
+				String name = String.format( "radio %dx%d smallTicks=%d", size[0], size[1], smallTicks );
+				System.out.println( run( name, radio, size ) );
+			}
+		}
+	}
+
+	public static void layout( View view, int width, int height ) {
+		view.measure( MeasureSpec.makeMeasureSpec( width, MeasureSpec.EXACTLY ), MeasureSpec.makeMeasureSpec( height, MeasureSpec.EXACTLY ) );
+		view.layout( 0, 0, width, height );
+	}
+
+	private static FrameStats run( String name, View view, int[] size ) {
+		Bitmap bitmap = Bitmap.createBitmap( size[0], size[1], Bitmap.Config.ARGB_8888 );
+		CountingCanvas canvas = new CountingCanvas( bitmap );
+		FrameStats stats = new FrameStats( name, FRAMES );
+
+		for ( int i = 0; i < WARMUP_FRAMES; i++ ) {
+			frame( view, canvas, i );
+		}
+
+		for ( int i = 0; i < FRAMES; i++ ) {
+			canvas.resetDrawCalls();
+			long bytes = allocatedBytes();
+			long time = System.nanoTime();
+			frame( view, canvas, i );
+			time = System.nanoTime() - time;
+			bytes = allocatedBytes() - bytes;
+			stats.add( time, canvas.getDrawCalls(), bytes );
+		}
+
+		bitmap.recycle();
+		return stats;
+	}
+
+	/**
+	 * Move the view to the next value of the sweep, back and forth over the whole range, and draw it.
+	 */
+	private static void frame( View view, CountingCanvas canvas, int frame ) {
+		float value = (float) Math.sin( 2 * Math.PI * frame / FRAMES ) * 0.95f;
+
+		if ( view instanceof Wheel ) {
+			( (Wheel) view ).setValue( value, false );
+		} else {
+			( (WheelRadio) view ).setValue( value );
+		}
+		view.draw( canvas );
+	}
+
+	/**
+	 * Gets the bytes allocated so far by the calling thread. Looking up the bean, or a thread by id, allocates, so that the bean is
+	 * kept and asked for the current thread only.
+	 */
+	@SuppressWarnings("restriction")
+	public static long allocatedBytes() {
+		return THREADS.getCurrentThreadAllocatedBytes();
+	}
+}
@@ -0,0 +1,130 @@
+package it.sephiroth.android.wheel.graphics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+import it.sephiroth.android.wheel.graphics.SharedBitmapCache.AssetOwner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import android.graphics.Bitmap;
+import android.os.Looper;
+
+/**
+ * Checks that the {@link SharedBitmapCache} trims the hidden {@link AssetOwner}s on the UI thread only, and evicts what they
+ * released once they are done.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, manifest = Config.NONE)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class SharedBitmapCacheTest {
+
+	static final int SIZE = 100;
+
+	Owner mOwner;
+
+	@Before
+	public void setUp() {
+		SharedBitmapCache.trimToSize( 0 );
+		SharedBitmapCache.setMaxSize( 2 * SharedBitmapCache.sizeOf( bitmap() ) );
+		mOwner = new Owner( "owner" );
+		mOwner.acquire();
+		SharedBitmapCache.setHidden( mOwner, true );
+	}
+
+	@After
+	public void tearDown() {
+		SharedBitmapCache.setHidden( mOwner, false );
+		SharedBitmapCache.setMaxSize( SharedBitmapCache.DEFAULT_MAX_SIZE );
+		SharedBitmapCache.release( "owner" );
+		SharedBitmapCache.release( "other" );
+		SharedBitmapCache.release( "third" );
+		SharedBitmapCache.trimToSize( 0 );
+	}
+
+	@Test
+	public void ownersAreTrimmedOnTheMainThread() {
+		SharedBitmapCache.put( "other", bitmap() );
+		SharedBitmapCache.put( "third", bitmap() );
+
+		assertEquals( 1, mOwner.mTrims );
+		assertSame( Looper.getMainLooper().getThread(), mOwner.mThread );
+		assertNull( "the released entry is still cached", SharedBitmapCache.acquire( "owner" ) );
+	}
+
+	@Test
+	public void ownersAreTrimmedLaterFromOtherThreads() throws InterruptedException {
+		SharedBitmapCache.put( "other", bitmap() );
+		Thread thread = new Thread() {
+
+			@Override
+			public void run() {
+				SharedBitmapCache.put( "third", bitmap() );
+			}
+		};
+		thread.start();
+		thread.join();
+		assertEquals( "trimmed on the caller thread", 0, mOwner.mTrims );
+
+		shadowOf( Looper.getMainLooper() ).idle();
+		assertEquals( 1, mOwner.mTrims );
+		assertSame( Looper.getMainLooper().getThread(), mOwner.mThread );
+		assertNull( "the released entry is still cached", SharedBitmapCache.acquire( "owner" ) );
+	}
+
+	@Test
+	public void visibleOwnersKeepTheirAssets() throws InterruptedException {
+		SharedBitmapCache.put( "other", bitmap() );
+		Thread thread = new Thread() {
+
+			@Override
+			public void run() {
+				SharedBitmapCache.put( "third", bitmap() );
+			}
+		};
+		thread.start();
+		thread.join();
+		SharedBitmapCache.setHidden( mOwner, false );
+
+		shadowOf( Looper.getMainLooper() ).idle();
+		assertEquals( 0, mOwner.mTrims );
+	}
+
+	static Bitmap bitmap() {
+		return Bitmap.createBitmap( SIZE, SIZE, Bitmap.Config.ARGB_8888 );
+	}
+
+	static class Owner implements AssetOwner {
+
+		final String mKey;
+		boolean mHolding;
+		int mTrims;
+		Thread mThread;
+
+		Owner( String key ) {
+			mKey = key;
+		}
+
+		void acquire() {
+			SharedBitmapCache.put( mKey, bitmap() );
+			mHolding = true;
+		}
+
+		@Override
+		public void trimAssets() {
+			mTrims++;
+			mThread = Thread.currentThread();
+			if ( mHolding ) {
+				SharedBitmapCache.release( mKey );
+				mHolding = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,489 @@
+package it.sephiroth.android.wheel.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+import it.sephiroth.android.wheel.benchmark.render.RenderBenchmark;
+import it.sephiroth.android.wheel.view.IFlingRunnable.FlingRunnableView;
+import it.sephiroth.android.wheel.view.Wheel.FlingEngineFactory;
+import it.sephiroth.android.wheel.view.Wheel.OnScrollListener;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.Manifest;
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ViewGroup.LayoutParams;
+import android.widget.FrameLayout;
+
+/**
+ * Allocation regression test of the {@link Wheel} scroll path. A real wheel, attached to an activity window, is driven through a
+ * scripted sequence of touch drags, flings past the bounds and slow releases snapping into a slot, with every frame run by the
+ * main looper and followed by a draw. Once warmed up, the wheel must not allocate a single byte, in every ticks render mode and
+ * scroll dispatch mode: neither in {@link Wheel#onTouchEvent(MotionEvent)} and {@link Wheel#draw(Canvas)}, nor in the fling
+ * frames, the scroll dispatch and the haptic feedback run by the looper drains.
+ * <p>
+ * Allocations are only counted while the wheel code runs. The looper, the choreographer, the gesture detector, the view drawing
+ * and the shadows of invalidate, of the posting and of the haptic feedback are Robolectric or platform code and are left out,
+ * while the wheel callbacks they call are counted again. Every test step is checked on its own, and the rounds are measured again
+ * when they allocated, up to {@link #MEASURES} times, to leave out the one-time linking of the Robolectric call sites. Run with the
+ * JIT escape analysis disabled, which the Android runtime does not have either.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, manifest = Config.NONE)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class WheelAllocationTest {
+
+	static final int WIDTH = 720;
+	static final int HEIGHT = 120;
+
+	static final int WARMUP_ROUNDS = 3;
+	static final int ROUNDS = 2;
+
+	/**
+	 * Measures of the rounds before failing. Robolectric links its call sites and compiles their method handles lazily, once, and
+	 * when depends on the tests run before in the same JVM: a wheel allocating on every frame fails every measure.
+	 */
+	static final int MEASURES = 3;
+
+	/** Looper steps after a release, enough for the longest fling and the snap to end. */
+	static final int FRAMES_PER_RELEASE = 150;
+	static final Duration FRAME = Duration.ofMillis( 16 );
+
+	static final int[] RENDER_MODES = { Wheel.TICKS_RENDER_DEFAULT, Wheel.TICKS_RENDER_ATLAS, Wheel.TICKS_RENDER_MESH };
+	static final boolean[] STATIC_LAYER = { false, true };
+	static final int[] DISPATCH_MODES = { Wheel.SCROLL_DISPATCH_ALWAYS, Wheel.SCROLL_DISPATCH_FRAME, Wheel.SCROLL_DISPATCH_TICK,
+			Wheel.SCROLL_DISPATCH_ADAPTIVE };
+
+	/**
+	 * Touch scripts, as x steps in pixels every 8 ms. Fast drags end in a fling in both directions, the last one is held still
+	 * before the release, so the wheel snaps into the closest slot.
+	 */
+	static final float[][] DRAGS = { { 24, 24, 24, 24, 24, 24, 24, 24 }, { -40, -40, -40, -40, -40, -40, -40, -40, -40, -40 },
+			{ 6, 6, 6, 6, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 } };
+
+	/** Bytes allocated while counting, the allocated bytes at the last switch and whether the wheel code is running. */
+	static long sCounted;
+	static long sMark;
+	static boolean sCounting;
+
+	final ShadowLooper mLooper = shadowOf( Looper.getMainLooper() );
+	MotionEvent[][] mEvents;
+	Bitmap mBitmap;
+	Canvas mCanvas;
+	int mScrolls;
+	int mDispatches;
+
+	boolean mMeasuring;
+	long mAllocated;
+	String mFirstAllocation;
+
+	@Before
+	public void setUp() {
+		Wheel.setFlingEngineFactory( new MeasuredEngineFactory() );
+		mEvents = makeEvents();
+		mBitmap = Bitmap.createBitmap( WIDTH, HEIGHT, Bitmap.Config.ARGB_8888 );
+		mCanvas = new Canvas( mBitmap );
+
+		for ( int i = 0; i < 10000; i++ ) {
+			RenderBenchmark.allocatedBytes();
+		}
+		long bytes = RenderBenchmark.allocatedBytes();
+		bytes = RenderBenchmark.allocatedBytes() - bytes;
+		assertEquals( "the measure itself allocates", 0, bytes );
+	}
+
+	@After
+	public void tearDown() {
+		Wheel.setFlingEngineFactory( null );
+		for ( MotionEvent[] events : mEvents ) {
+			for ( MotionEvent event : events ) {
+				event.recycle();
+			}
+		}
+		mBitmap.recycle();
+	}
+
+	@Test
+	public void scrollPathDoesNotAllocate() {
+		for ( int mode = 0; mode < RENDER_MODES.length; mode++ ) {
+			for ( boolean staticLayer : STATIC_LAYER ) {
+				Wheel wheel = createWheel( RENDER_MODES[mode], staticLayer );
+
+				for ( int i = 0; i < WARMUP_ROUNDS; i++ ) {
+					round( wheel );
+				}
+
+				for ( int measure = 0; measure < MEASURES && ( measure == 0 || mAllocated > 0 ); measure++ ) {
+					mAllocated = 0;
+					mFirstAllocation = null;
+					mMeasuring = true;
+					for ( int i = 0; i < ROUNDS; i++ ) {
+						round( wheel );
+					}
+					mMeasuring = false;
+				}
+
+				assertEquals( "render mode " + RENDER_MODES[mode] + ( staticLayer ? " with the static layer" : "" )
+						+ ": bytes allocated by the scroll path, first in " + mFirstAllocation, 0, mAllocated );
+			}
+		}
+		assertTrue( "the scroll listeners were never called", mScrolls > 0 );
+		assertTrue( "no posted callback of the wheel ran", mDispatches > 0 );
+	}
+
+	private Wheel createWheel( int renderMode, boolean staticLayer ) {
+		Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+		// the haptic feedback is part of the measured path, it is only enabled with the VIBRATE permission
+		shadowOf( activity.getApplication() ).grantPermissions( Manifest.permission.VIBRATE );
+		MeasuredWheel wheel = new MeasuredWheel( activity );
+		assertTrue( "the haptic feedback is disabled", wheel.getVibrationEnabled() );
+		wheel.mGestureDetector = new UncountedGestureDetector( activity, wheel );
+		wheel.mGestureDetector.setIsLongpressEnabled( false );
+		wheel.setTicksRenderMode( renderMode );
+		wheel.setStaticLayerEnabled( staticLayer );
+		wheel.addOnScrollListener( new OnScrollListener() {
+
+			@Override
+			public void onScrollStarted( Wheel view, float value, int roundValue ) {}
+
+			@Override
+			public void onScroll( Wheel view, float value, int roundValue ) {
+				mScrolls++;
+			}
+
+			@Override
+			public void onScrollFinished( Wheel view, float value, int roundValue ) {}
+		} );
+		UncountedParent parent = new UncountedParent( activity );
+		parent.addView( wheel, new LayoutParams( WIDTH, HEIGHT ) );
+		activity.setContentView( parent );
+		mLooper.idle();
+		RenderBenchmark.layout( wheel, WIDTH, HEIGHT );
+		return wheel;
+	}
+
+	/**
+	 * One pass of the script, in every scroll dispatch mode.
+	 */
+	private void round( Wheel wheel ) {
+		for ( int mode : DISPATCH_MODES ) {
+			wheel.setScrollDispatchMode( mode );
+			for ( MotionEvent[] events : mEvents ) {
+				for ( MotionEvent event : events ) {
+					long counted = begin( true );
+					wheel.onTouchEvent( event );
+					end( "onTouchEvent", counted );
+
+					draw( wheel );
+				}
+				for ( int i = 0; i < FRAMES_PER_RELEASE; i++ ) {
+					long counted = begin( false );
+					mLooper.idleFor( FRAME );
+					end( "the looper drain", counted );
+
+					draw( wheel );
+				}
+			}
+		}
+	}
+
+	private void draw( Wheel wheel ) {
+		long counted = begin( true );
+		wheel.getBackground().draw( mCanvas );
+		end( "the background", counted );
+
+		counted = begin( false );
+		wheel.draw( mCanvas );
+		end( "draw", counted );
+	}
+
+	private static long begin( boolean counting ) {
+		count( counting );
+		return sCounted;
+	}
+
+	/**
+	 * Checks a single test step. Steps are checked one by one, so that nothing can compensate an allocation.
+	 */
+	private void end( String step, long counted ) {
+		count( false );
+		final long bytes = sCounted - counted;
+		if ( mMeasuring && bytes > 0 ) {
+			mAllocated += bytes;
+			if ( mFirstAllocation == null ) {
+				mFirstAllocation = step;
+			}
+		}
+	}
+
+	/**
+	 * Start or stop counting the allocations.
+	 * 
+	 * @return whether the allocations were counted before the call
+	 */
+	static boolean count( boolean counting ) {
+		final long bytes = RenderBenchmark.allocatedBytes();
+		if ( sCounting ) {
+			sCounted += bytes - sMark;
+		}
+		final boolean result = sCounting;
+		sCounting = counting;
+		sMark = bytes;
+		return result;
+	}
+
+	/**
+	 * Obtain the touch events of the scripts once, so that they do not count as allocations of the wheel.
+	 */
+	private static MotionEvent[][] makeEvents() {
+		MotionEvent[][] result = new MotionEvent[DRAGS.length][];
+		long time = SystemClock.uptimeMillis();
+
+		for ( int i = 0; i < DRAGS.length; i++ ) {
+			final float[] steps = DRAGS[i];
+			final MotionEvent[] events = new MotionEvent[steps.length + 2];
+			final long down = time;
+			float x = WIDTH / 2;
+			float y = HEIGHT / 2;
+
+			events[0] = MotionEvent.obtain( down, time, MotionEvent.ACTION_DOWN, x, y, 0 );
+			for ( int j = 0; j < steps.length; j++ ) {
+				time += 8;
+				x += steps[j];
+				events[j + 1] = MotionEvent.obtain( down, time, MotionEvent.ACTION_MOVE, x, y, 0 );
+			}
+			time += 8;
+			events[steps.length + 1] = MotionEvent.obtain( down, time, MotionEvent.ACTION_UP, x, y, 0 );
+			result[i] = events;
+			time += 1000;
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the gesture callbacks, the drawing and the runnables the wheel posts, and leaves the shadows of invalidate, of the
+	 * posting and of the haptic feedback out.
+	 */
+	class MeasuredWheel extends Wheel {
+
+		final IdentityHashMap<Runnable, Runnable> mCallbacks = new IdentityHashMap<Runnable, Runnable>();
+
+		MeasuredWheel( Context context ) {
+			super( context );
+		}
+
+		@Override
+		public boolean onDown( MotionEvent event ) {
+			final boolean counting = count( true );
+			final boolean result = super.onDown( event );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		public boolean onScroll( MotionEvent e1, MotionEvent e2, float distanceX, float distanceY ) {
+			final boolean counting = count( true );
+			final boolean result = super.onScroll( e1, e2, distanceX, distanceY );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		public boolean onFling( MotionEvent event0, MotionEvent event1, float velocityX, float velocityY ) {
+			final boolean counting = count( true );
+			final boolean result = super.onFling( event0, event1, velocityX, velocityY );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		public boolean onSingleTapUp( MotionEvent event ) {
+			final boolean counting = count( true );
+			final boolean result = super.onSingleTapUp( event );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		protected void onDraw( Canvas canvas ) {
+			final boolean counting = count( true );
+			super.onDraw( canvas );
+			count( counting );
+		}
+
+		@Override
+		public boolean performHapticFeedback( int feedbackConstant ) {
+			final boolean counting = count( false );
+			final boolean result = super.performHapticFeedback( feedbackConstant );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		public boolean performHapticFeedback( int feedbackConstant, int flags ) {
+			final boolean counting = count( false );
+			final boolean result = super.performHapticFeedback( feedbackConstant, flags );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		public void invalidate() {
+			final boolean counting = count( false );
+			super.invalidate();
+			count( counting );
+		}
+
+		@Override
+		public boolean post( Runnable action ) {
+			final Runnable measured = measured( action );
+			final boolean counting = count( false );
+			final boolean result = super.post( measured );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		public boolean postDelayed( Runnable action, long delayMillis ) {
+			final Runnable measured = measured( action );
+			final boolean counting = count( false );
+			final boolean result = super.postDelayed( measured, delayMillis );
+			count( counting );
+			return result;
+		}
+
+		@Override
+		public void postOnAnimation( Runnable action ) {
+			final Runnable measured = measured( action );
+			final boolean counting = count( false );
+			super.postOnAnimation( measured );
+			count( counting );
+		}
+
+		@Override
+		public boolean removeCallbacks( Runnable action ) {
+			final Runnable measured = measured( action );
+			final boolean counting = count( false );
+			final boolean result = super.removeCallbacks( measured );
+			count( counting );
+			return result;
+		}
+
+		/**
+		 * Gets the counting wrapper of a runnable of the wheel, made the first time the runnable is posted.
+		 */
+		private Runnable measured( final Runnable action ) {
+			Runnable result = mCallbacks.get( action );
+			if ( result == null ) {
+				final boolean counting = count( false );
+				result = new Runnable() {
+
+					@Override
+					public void run() {
+						mDispatches++;
+						final boolean counting = count( true );
+						action.run();
+						count( counting );
+					}
+				};
+				mCallbacks.put( action, result );
+				count( counting );
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Parent of the wheel, the shadow of {@link #requestDisallowInterceptTouchEvent(boolean)} is left out.
+	 */
+	static class UncountedParent extends FrameLayout {
+
+		UncountedParent( Context context ) {
+			super( context );
+		}
+
+		@Override
+		public void requestDisallowInterceptTouchEvent( boolean disallowIntercept ) {
+			final boolean counting = count( false );
+			super.requestDisallowInterceptTouchEvent( disallowIntercept );
+			count( counting );
+		}
+	}
+
+	/**
+	 * The platform gesture detection is left out, the wheel callbacks it calls are counted again.
+	 */
+	static class UncountedGestureDetector extends GestureDetector {
+
+		UncountedGestureDetector( Context context, OnGestureListener listener ) {
+			super( context, listener );
+		}
+
+		@Override
+		public boolean onTouchEvent( MotionEvent event ) {
+			final boolean counting = count( false );
+			final boolean result = super.onTouchEvent( event );
+			count( counting );
+			return result;
+		}
+	}
+
+	/**
+	 * Creates the vsync engine, counting the allocations of its frames but not the shadow of the choreographer.
+	 */
+	static class MeasuredEngineFactory implements FlingEngineFactory {
+
+		@Override
+		public IFlingRunnable create( FlingRunnableView parent, int animationDuration ) {
+			return new MeasuredVsyncRunnable( parent, animationDuration );
+		}
+	}
+
+	static class MeasuredVsyncRunnable extends FlingVsyncRunnable {
+
+		MeasuredVsyncRunnable( FlingRunnableView parent, int animationDuration ) {
+			super( parent, animationDuration );
+		}
+
+		@Override
+		public void doFrame( long frameTimeNanos ) {
+			final boolean counting = count( true );
+			super.doFrame( frameTimeNanos );
+			count( counting );
+		}
+
+		@Override
+		protected void schedule() {
+			final boolean counting = count( false );
+			super.schedule();
+			count( counting );
+		}
+
+		@Override
+		protected void unschedule() {
+			final boolean counting = count( false );
+			super.unschedule();
+			count( counting );
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package it.sephiroth.android.wheel.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+import it.sephiroth.android.wheel.benchmark.render.RenderBenchmark;
+
+import java.time.Duration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import android.app.Activity;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+import android.os.Looper;
+import android.view.ViewGroup;
+import android.view.ViewGroup.LayoutParams;
+
+/**
+ * Checks that {@link Wheel#setBackgroundColors(int[], float[])} copies the arrays of the caller, and that a change of opacity of
+ * the gradient is followed by {@link Wheel#isOpaque()} without setting the background again, which would request a layout.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, manifest = Config.NONE)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class WheelBackgroundTest {
+
+	static final int WIDTH = 720;
+	static final int HEIGHT = 120;
+
+	static final int[] OPAQUE = { 0xff000000, 0xffffffff, 0xff000000 };
+	static final int[] TRANSLUCENT = { 0x80000000, 0x80ffffff, 0x80000000 };
+	static final float[] POSITIONS = { 0, 0.5f, 1 };
+
+	Wheel mWheel;
+
+	@Before
+	public void setUp() {
+		Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+		mWheel = new Wheel( activity );
+		activity.setContentView( mWheel, new LayoutParams( WIDTH, HEIGHT ) );
+		idle();
+		RenderBenchmark.layout( mWheel, WIDTH, HEIGHT );
+	}
+
+	@After
+	public void tearDown() {
+		// detached, the wheel gives its assets back to the cache shared with the other tests
+		( (ViewGroup) mWheel.getParent() ).removeView( mWheel );
+		idle();
+	}
+
+	@Test
+	public void colorsAreCopied() {
+		final int[] colors = OPAQUE.clone();
+		mWheel.setBackgroundColors( colors, POSITIONS.clone() );
+		colors[1] = 0;
+		assertEquals( PixelFormat.OPAQUE, mWheel.getBackground().getOpacity() );
+	}
+
+	@Test
+	public void opacityChangeKeepsTheBackground() {
+		opacityChangeKeepsTheBackground( false );
+	}
+
+	@Test
+	public void opacityChangeKeepsTheBackgroundOfTheStaticLayer() {
+		opacityChangeKeepsTheBackground( true );
+	}
+
+	private void opacityChangeKeepsTheBackground( boolean staticLayer ) {
+		mWheel.setStaticLayerEnabled( staticLayer );
+		mWheel.setBackgroundColors( OPAQUE, POSITIONS );
+		idle();
+		final Drawable background = mWheel.getBackground();
+
+		mWheel.setBackgroundColors( TRANSLUCENT, POSITIONS );
+		assertSame( background, mWheel.getBackground() );
+		assertEquals( PixelFormat.TRANSLUCENT, background.getOpacity() );
+		assertFalse( mWheel.isOpaque() );
+		assertFalse( "the opacity change requested a layout", mWheel.isLayoutRequested() );
+		idle();
+
+		mWheel.setBackgroundColors( OPAQUE, POSITIONS );
+		assertSame( background, mWheel.getBackground() );
+		assertEquals( PixelFormat.OPAQUE, background.getOpacity() );
+		assertFalse( "the opacity change requested a layout", mWheel.isLayoutRequested() );
+	}
+
+	private static void idle() {
+		shadowOf( Looper.getMainLooper() ).idleFor( Duration.ofSeconds( 2 ) );
+	}
+}
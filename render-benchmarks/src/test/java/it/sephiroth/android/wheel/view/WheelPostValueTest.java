@@ -0,0 +1,122 @@
+package it.sephiroth.android.wheel.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.robolectric.Shadows.shadowOf;
+import it.sephiroth.android.wheel.benchmark.render.RenderBenchmark;
+
+import java.time.Duration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.ViewGroup;
+import android.view.ViewGroup.LayoutParams;
+
+/**
+ * Checks that {@link Wheel#postValue(float, boolean)} lands on the exact value whether animated or not, rather than on the
+ * nearest tick, and that the animated value notifies the scroll listeners once reached.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, manifest = Config.NONE)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class WheelPostValueTest {
+
+	static final int WIDTH = 720;
+	static final int HEIGHT = 120;
+
+	/** A value between two ticks. */
+	static final float VALUE = 0.123f;
+
+	Wheel mWheel;
+	int mFinished;
+	float mFinishedValue;
+
+	@Before
+	public void setUp() {
+		Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+		mWheel = new Wheel( activity );
+		activity.setContentView( mWheel, new LayoutParams( WIDTH, HEIGHT ) );
+		idle();
+		RenderBenchmark.layout( mWheel, WIDTH, HEIGHT );
+
+		mWheel.addOnScrollListener( new Wheel.OnScrollListener() {
+
+			@Override
+			public void onScrollStarted( Wheel view, float value, int roundValue ) {}
+
+			@Override
+			public void onScroll( Wheel view, float value, int roundValue ) {}
+
+			@Override
+			public void onScrollFinished( Wheel view, float value, int roundValue ) {
+				mFinished++;
+				mFinishedValue = value;
+			}
+		} );
+	}
+
+	@After
+	public void tearDown() {
+		// detached, the wheel gives its assets back to the cache shared with the other tests
+		( (ViewGroup) mWheel.getParent() ).removeView( mWheel );
+		idle();
+	}
+
+	@Test
+	public void animatedValueIsExact() {
+		final float expected = exactValue();
+		mWheel.postValue( VALUE, true );
+		idle();
+
+		assertEquals( expected, mWheel.getValue(), 0 );
+		assertEquals( 1, mFinished );
+		assertEquals( expected, mFinishedValue, 0 );
+	}
+
+	@Test
+	public void valueIsExact() {
+		final float expected = exactValue();
+		mWheel.postValue( VALUE, false );
+		idle();
+
+		assertEquals( expected, mWheel.getValue(), 0 );
+		assertEquals( 0, mFinished );
+	}
+
+	@Test
+	public void settledValueIsSnapped() {
+		final float expected = exactValue();
+		mWheel.postValue( VALUE, true );
+		idle();
+
+		// the value is between two ticks: a fling or a drag ending there still snaps
+		mWheel.scrollIntoSlots();
+		idle();
+		assertNotEquals( expected, mWheel.getValue(), 0 );
+		assertEquals( 2, mFinished );
+	}
+
+	/**
+	 * Gets the value applied by {@link Wheel#setValue(float, boolean)}, then resets the wheel.
+	 */
+	private float exactValue() {
+		mWheel.setValue( VALUE, false );
+		final float value = mWheel.getValue();
+		mWheel.setValue( 0, false );
+		idle();
+		return value;
+	}
+
+	private static void idle() {
+		shadowOf( Looper.getMainLooper() ).idleFor( Duration.ofSeconds( 2 ) );
+	}
+}
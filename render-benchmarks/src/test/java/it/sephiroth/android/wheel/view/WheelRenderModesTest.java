@@ -0,0 +1,94 @@
+package it.sephiroth.android.wheel.view;
+
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+import it.sephiroth.android.wheel.benchmark.render.RenderBenchmark;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.annotation.LooperMode;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Looper;
+import android.view.ViewGroup.LayoutParams;
+
+/**
+ * Checks that the ticks render modes of the {@link Wheel} draw the same pixels, translucent ticks colors included: the alpha of
+ * the ticks color must be applied exactly once, whether the ticks are drawn one by one, from the atlas or from the pre-tinted
+ * mesh. The static layer is disabled, it bakes the vignette in the default and atlas modes only.
+ * <p>
+ * The images are compared row by row, on the mean of every channel: the mesh is not anti-aliased at the tick edges, which can
+ * move part of an edge pixel to the next column.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, manifest = Config.NONE)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class WheelRenderModesTest {
+
+	static final int WIDTH = 720;
+	static final int HEIGHT = 120;
+
+	/** Max difference of the mean of a color channel over a row. */
+	static final double TOLERANCE = 1;
+
+	static final int[] COLORS = { 0x80FF0000, 0x40CCCCCC };
+
+	@Test
+	public void renderModesDrawTheSamePixels() {
+		for ( int color : COLORS ) {
+			final int[] expected = render( Wheel.TICKS_RENDER_DEFAULT, color );
+			final int[] opaque = render( Wheel.TICKS_RENDER_DEFAULT, color | 0xFF000000 );
+			assertTrue( "the ticks color alpha is ignored", maxDifference( expected, opaque ) > TOLERANCE );
+
+			for ( int mode : new int[] { Wheel.TICKS_RENDER_ATLAS, Wheel.TICKS_RENDER_MESH } ) {
+				final double difference = maxDifference( expected, render( mode, color ) );
+				assertTrue( "render mode " + mode + " with the ticks color " + Integer.toHexString( color ) + " differs by "
+						+ difference, difference <= TOLERANCE );
+			}
+		}
+	}
+
+	private static int[] render( int renderMode, int ticksColor ) {
+		Activity activity = Robolectric.buildActivity( Activity.class ).setup().get();
+		Wheel wheel = new Wheel( activity );
+		wheel.setTicksRenderMode( renderMode );
+		wheel.setStaticLayerEnabled( false );
+		wheel.setTicksColor( ticksColor );
+		activity.setContentView( wheel, new LayoutParams( WIDTH, HEIGHT ) );
+		shadowOf( Looper.getMainLooper() ).idle();
+		RenderBenchmark.layout( wheel, WIDTH, HEIGHT );
+
+		Bitmap bitmap = Bitmap.createBitmap( WIDTH, HEIGHT, Bitmap.Config.ARGB_8888 );
+		wheel.draw( new Canvas( bitmap ) );
+
+		int[] pixels = new int[WIDTH * HEIGHT];
+		bitmap.getPixels( pixels, 0, WIDTH, 0, 0, WIDTH, HEIGHT );
+		bitmap.recycle();
+		return pixels;
+	}
+
+	/**
+	 * Gets the largest difference of the mean of a color channel over a row, between two images.
+	 */
+	private static double maxDifference( int[] a, int[] b ) {
+		double result = 0;
+		for ( int y = 0; y < HEIGHT; y++ ) {
+			int red = 0, green = 0, blue = 0;
+			for ( int i = y * WIDTH; i < ( y + 1 ) * WIDTH; i++ ) {
+				red += Color.red( a[i] ) - Color.red( b[i] );
+				green += Color.green( a[i] ) - Color.green( b[i] );
+				blue += Color.blue( a[i] ) - Color.blue( b[i] );
+			}
+			result = Math.max( result, (double) Math.max( Math.abs( red ), Math.max( Math.abs( green ), Math.abs( blue ) ) ) / WIDTH );
+		}
+		return result;
+	}
+}
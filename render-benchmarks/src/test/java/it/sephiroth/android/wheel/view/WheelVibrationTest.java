@@ -0,0 +1,110 @@
+package it.sephiroth.android.wheel.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+import it.sephiroth.android.wheel.benchmark.render.RenderBenchmark;
+
+import java.time.Duration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import android.Manifest;
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.os.Vibrator;
+import android.view.HapticFeedbackConstants;
+import android.view.ViewGroup;
+import android.view.ViewGroup.LayoutParams;
+
+/**
+ * Checks that the {@link Wheel} vibrates only when the device has a vibrator and the VIBRATE permission is granted, and that the
+ * feedback goes through {@link android.view.View#performHapticFeedback(int)} without overriding the setting of the view.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, manifest = Config.NONE)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class WheelVibrationTest {
+
+	static final int WIDTH = 720;
+	static final int HEIGHT = 120;
+
+	Activity mActivity;
+	Wheel mWheel;
+
+	@Before
+	public void setUp() {
+		mActivity = Robolectric.buildActivity( Activity.class ).setup().get();
+	}
+
+	@After
+	public void tearDown() {
+		shadowOf( vibrator() ).setHasVibrator( true );
+		if ( mWheel != null && mWheel.getParent() != null ) {
+			// detached, the wheel gives its assets back to the cache shared with the other tests
+			( (ViewGroup) mWheel.getParent() ).removeView( mWheel );
+			idle();
+		}
+	}
+
+	@Test
+	public void vibrationNeedsThePermission() {
+		mWheel = new Wheel( mActivity );
+		assertFalse( mWheel.getVibrationEnabled() );
+
+		mWheel.setVibrationEnabled( true );
+		assertFalse( mWheel.getVibrationEnabled() );
+	}
+
+	@Test
+	public void vibrationNeedsAVibrator() {
+		shadowOf( mActivity.getApplication() ).grantPermissions( Manifest.permission.VIBRATE );
+		shadowOf( vibrator() ).setHasVibrator( false );
+		mWheel = new Wheel( mActivity );
+		assertFalse( mWheel.getVibrationEnabled() );
+	}
+
+	@Test
+	public void tickChangesPerformTheHapticFeedback() {
+		shadowOf( mActivity.getApplication() ).grantPermissions( Manifest.permission.VIBRATE );
+		mWheel = new Wheel( mActivity );
+		assertTrue( mWheel.getVibrationEnabled() );
+
+		mActivity.setContentView( mWheel, new LayoutParams( WIDTH, HEIGHT ) );
+		idle();
+		RenderBenchmark.layout( mWheel, WIDTH, HEIGHT );
+
+		// the tick changes are tracked along with the scroll dispatch, which needs a listener
+		mWheel.addOnScrollListener( new Wheel.OnScrollListener() {
+
+			@Override
+			public void onScrollStarted( Wheel view, float value, int roundValue ) {}
+
+			@Override
+			public void onScroll( Wheel view, float value, int roundValue ) {}
+
+			@Override
+			public void onScrollFinished( Wheel view, float value, int roundValue ) {}
+		} );
+		mWheel.postValue( 0.5f, true );
+		idle();
+		assertEquals( HapticFeedbackConstants.VIRTUAL_KEY, shadowOf( mWheel ).lastHapticFeedbackPerformed() );
+	}
+
+	private Vibrator vibrator() {
+		return (Vibrator) mActivity.getSystemService( Context.VIBRATOR_SERVICE );
+	}
+
+	private static void idle() {
+		shadowOf( Looper.getMainLooper() ).idleFor( Duration.ofSeconds( 2 ) );
+	}
+}
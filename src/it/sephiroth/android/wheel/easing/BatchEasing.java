@@ -0,0 +1,14 @@
+package it.sephiroth.android.wheel.easing;
+
+/**
+ * Easing which can also evaluate a whole array of inputs at once. Results are written into a caller owned array, so no
+ * allocation happens during the evaluation.
+ */
+public interface BatchEasing extends Easing {
+
+	void easeOut( float[] time, float start, float end, float duration, float[] out, int count );
+
+	void easeIn( float[] time, float start, float end, float duration, float[] out, int count );
+
+	void easeInOut( float[] time, float start, float end, float duration, float[] out, int count );
+}
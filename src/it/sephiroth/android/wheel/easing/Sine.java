@@ -1,6 +1,6 @@
 package it.sephiroth.android.wheel.easing;
 
-public class Sine implements Easing {
+public class Sine implements BatchEasing {
 
 	@Override
 	public double easeOut( double t, double b, double c, double d ) {
@@ -17,4 +17,29 @@ public class Sine implements Easing {
 		return -c / 2 * ( Math.cos( Math.PI * t / d ) - 1 ) + b;
 	}
 
+	@Override
+	public void easeOut( float[] t, float b, float c, float d, float[] out, int count ) {
+		final double k = ( Math.PI / 2 ) / d;
+		for ( int i = 0; i < count; i++ ) {
+			out[i] = (float) ( c * Math.sin( t[i] * k ) + b );
+		}
+	}
+
+	@Override
+	public void easeIn( float[] t, float b, float c, float d, float[] out, int count ) {
+		final double k = ( Math.PI / 2 ) / d;
+		for ( int i = 0; i < count; i++ ) {
+			out[i] = (float) ( -c * Math.cos( t[i] * k ) + c + b );
+		}
+	}
+
+	@Override
+	public void easeInOut( float[] t, float b, float c, float d, float[] out, int count ) {
+		final double k = Math.PI / d;
+		final float h = -c / 2;
+		for ( int i = 0; i < count; i++ ) {
+			out[i] = (float) ( h * ( Math.cos( t[i] * k ) - 1 ) + b );
+		}
+	}
+
 }
@@ -1,5 +1,9 @@
 package it.sephiroth.android.wheel.graphics;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import android.graphics.Canvas;
 import android.graphics.ColorFilter;
 import android.graphics.LinearGradient;
@@ -13,20 +17,33 @@ import android.graphics.drawable.GradientDrawable.Orientation;
 
 /**
  * Draw a simple linear gradient.
+ * Drawables created from the same {@link ConstantState} share the gradient definition until {@link #mutate()} is called, and
+ * the gradient shaders are shared between all the drawables with the same colors, positions, orientation and bounds.
  * @author alessandro
  */
 public class LinearGradientDrawable extends Drawable {
 
+	/** Max number of gradient shaders kept in the shared cache. */
+	private static final int MAX_CACHED_SHADERS = 16;
+
+	private static final LinkedHashMap<ShaderKey, Shader> sShaders = new LinkedHashMap<ShaderKey, Shader>( 16, 0.75f, true ) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<ShaderKey, Shader> eldest ) {
+			return size() > MAX_CACHED_SHADERS;
+		}
+	};
+
 	private final Paint mFillPaint = new Paint( Paint.ANTI_ALIAS_FLAG );
 	private Rect mPadding;
-	private float mCornerRadius = 0;
 	private boolean mRectIsDirty = true;
 	private int mAlpha = 0xFF; // modified by the caller
 	private boolean mDither = true;
 	private ColorFilter mColorFilter;
-	private Orientation mOrientation = Orientation.LEFT_RIGHT;
-	private int[] mColors;
-	private float[] mPositions;
+	private GradientState mState;
+	private boolean mMutated;
 	private final RectF mRect = new RectF();
 
 	/**
@@ -37,9 +54,11 @@ public class LinearGradientDrawable extends Drawable {
 	 * @param positions the positions
 	 */
 	public LinearGradientDrawable( Orientation orientation, int[] colors, float[] positions ) {
-		mOrientation = orientation;
-		mColors = colors;
-		mPositions = positions;
+		this( new GradientState( orientation, colors, positions ) );
+	}
+
+	private LinearGradientDrawable( GradientState state ) {
+		mState = state;
 	}
 
 	@Override
@@ -51,8 +70,8 @@ public class LinearGradientDrawable extends Drawable {
 		mFillPaint.setDither( mDither );
 		mFillPaint.setColorFilter( mColorFilter );
 
-		if ( mCornerRadius > 0 ) {
-			float rad = mCornerRadius;
+		if ( mState.mCornerRadius > 0 ) {
+			float rad = mState.mCornerRadius;
 			float r = Math.min( mRect.width(), mRect.height() ) * 0.5f;
 			if ( rad > r ) {
 				rad = r;
@@ -78,14 +97,14 @@ public class LinearGradientDrawable extends Drawable {
 
 			mRect.set( bounds.left + inset, bounds.top + inset, bounds.right - inset, bounds.bottom - inset );
 
-			final int[] colors = mColors;
+			final int[] colors = mState.mColors;
 
 			if ( colors != null ) {
 				RectF r = mRect;
 				float x0, x1, y0, y1;
 
 				final float level = 1.0f;
-				switch ( mOrientation ) {
+				switch ( mState.mOrientation ) {
 					case TOP_BOTTOM:
 						x0 = r.left;
 						y0 = r.top;
@@ -136,7 +155,7 @@ public class LinearGradientDrawable extends Drawable {
 						break;
 				}
 
-				mFillPaint.setShader( new LinearGradient( x0, y0, x1, y1, colors, mPositions, Shader.TileMode.CLAMP ) );
+				mFillPaint.setShader( obtainShader( mState.mOrientation, colors, mState.mPositions, x0, y0, x1, y1 ) );
 			}
 		}
 		return !mRect.isEmpty();
@@ -148,9 +167,32 @@ public class LinearGradientDrawable extends Drawable {
 		mRectIsDirty = true;
 	}
 
+	/**
+	 * Gets a shared gradient shader, creating it if needed.
+	 */
+	private static Shader obtainShader( Orientation orientation, int[] colors, float[] positions, float x0, float y0, float x1, float y1 ) {
+		ShaderKey key = new ShaderKey( orientation, colors, positions, x0, y0, x1, y1 );
+		synchronized ( sShaders ) {
+			Shader shader = sShaders.get( key );
+			if ( shader == null ) {
+				shader = new LinearGradient( x0, y0, x1, y1, colors, positions, Shader.TileMode.CLAMP );
+				sShaders.put( key.copy(), shader );
+			}
+			return shader;
+		}
+	}
+
 	@Override
 	public int getOpacity() {
-		return PixelFormat.TRANSLUCENT;
+		if ( mAlpha != 0xFF || mColorFilter != null || mState.mCornerRadius > 0 || mState.mColors == null ) {
+			return PixelFormat.TRANSLUCENT;
+		}
+		for ( int color : mState.mColors ) {
+			if ( ( color >>> 24 ) != 0xFF ) {
+				return PixelFormat.TRANSLUCENT;
+			}
+		}
+		return PixelFormat.OPAQUE;
 	}
 
 	@Override
@@ -193,8 +235,120 @@ public class LinearGradientDrawable extends Drawable {
 	 * @param radius the new corner radius
 	 */
 	public void setCornerRadius( float radius ) {
-		mCornerRadius = radius;
+		mState.mCornerRadius = radius;
+		invalidateSelf();
+	}
+
+	/**
+	 * Change the gradient colors. Call {@link #mutate()} first if the drawable shares its state with other drawables.
+	 *
+	 * @param colors the colors
+	 * @param positions the positions, same length of the colors
+	 */
+	public void setColors( int[] colors, float[] positions ) {
+		mState.mColors = colors;
+		mState.mPositions = positions;
+		mRectIsDirty = true;
 		invalidateSelf();
 	}
 
+	@Override
+	public ConstantState getConstantState() {
+		mState.mChangingConfigurations = getChangingConfigurations();
+		return mState;
+	}
+
+	@Override
+	public Drawable mutate() {
+		if ( !mMutated && super.mutate() == this ) {
+			mState = new GradientState( mState );
+			mMutated = true;
+		}
+		return this;
+	}
+
+	/**
+	 * The gradient definition, shared between the drawables created from it.
+	 */
+	static final class GradientState extends ConstantState {
+
+		Orientation mOrientation;
+		int[] mColors;
+		float[] mPositions;
+		float mCornerRadius;
+		int mChangingConfigurations;
+
+		GradientState( Orientation orientation, int[] colors, float[] positions ) {
+			mOrientation = orientation;
+			mColors = colors;
+			mPositions = positions;
+		}
+
+		GradientState( GradientState state ) {
+			mOrientation = state.mOrientation;
+			mColors = state.mColors != null ? state.mColors.clone() : null;
+			mPositions = state.mPositions != null ? state.mPositions.clone() : null;
+			mCornerRadius = state.mCornerRadius;
+			mChangingConfigurations = state.mChangingConfigurations;
+		}
+
+		@Override
+		public Drawable newDrawable() {
+			return new LinearGradientDrawable( this );
+		}
+
+		@Override
+		public int getChangingConfigurations() {
+			return mChangingConfigurations;
+		}
+	}
+
+	/**
+	 * Key of the shared gradient shaders. Lookups use the caller's arrays, only the stored keys own a copy.
+	 */
+	private static final class ShaderKey {
+
+		final Orientation orientation;
+		final int[] colors;
+		final float[] positions;
+		final float x0, y0, x1, y1;
+		final int hash;
+
+		ShaderKey( Orientation orientation, int[] colors, float[] positions, float x0, float y0, float x1, float y1 ) {
+			this.orientation = orientation;
+			this.colors = colors;
+			this.positions = positions;
+			this.x0 = x0;
+			this.y0 = y0;
+			this.x1 = x1;
+			this.y1 = y1;
+			int h = orientation.hashCode();
+			h = 31 * h + Arrays.hashCode( colors );
+			h = 31 * h + Arrays.hashCode( positions );
+			h = 31 * h + Float.floatToIntBits( x0 );
+			h = 31 * h + Float.floatToIntBits( y0 );
+			h = 31 * h + Float.floatToIntBits( x1 );
+			h = 31 * h + Float.floatToIntBits( y1 );
+			this.hash = h;
+		}
+
+		ShaderKey copy() {
+			return new ShaderKey( orientation, colors.clone(), positions != null ? positions.clone() : null, x0, y0, x1, y1 );
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			if ( this == o ) return true;
+			if ( !( o instanceof ShaderKey ) ) return false;
+			ShaderKey other = (ShaderKey) o;
+			return orientation == other.orientation && x0 == other.x0 && y0 == other.y0 && x1 == other.x1 && y1 == other.y1
+					&& Arrays.equals( colors, other.colors ) && Arrays.equals( positions, other.positions );
+		}
+	}
+
 }
@@ -0,0 +1,424 @@
+package it.sephiroth.android.wheel.graphics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.WeakHashMap;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Shader;
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Process wide cache of bitmaps (and of the shaders built on top of them) shared between all the wheel widgets. Entries are
+ * reference counted: an entry is never evicted while it is in use, while unused entries are kept in LRU order until the cache
+ * grows over its max size. Being static, the cache survives configuration changes.
+ * <p>
+ * The cache also pools the bitmaps owned by a single view, such as the static layer of a wheel, which are given back with
+ * {@link #recycle(Bitmap)} when the view is detached and reused by the next {@link #obtain(int, int, Bitmap.Config)} of the same
+ * size. Pooled bitmaps count toward the max size and are evicted before the shared entries.
+ * <p>
+ * The max size is the global bitmap budget of all the wheel widgets. When the entries in use exceed it, the {@link AssetOwner}s
+ * which are not visible are asked to drop their assets, rebuilt when they are drawn again. The same happens when the system
+ * asks the application to trim its memory, once {@link #registerComponentCallbacks(Context)} has been called. Owners are always
+ * trimmed on the UI thread and outside of the cache lock: right away when the cache is used from the UI thread, posted to it
+ * otherwise. The entries they release are evicted once they are done.
+ */
+public final class SharedBitmapCache {
+
+	/** Default max size of the cache, in bytes. */
+	public static final int DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * A view holding assets of the cache, which can drop them while not visible.
+	 */
+	public interface AssetOwner {
+
+		/**
+		 * Release all the assets held, and rebuild them lazily the next time they are needed. Called on the UI thread.
+		 */
+		void trimAssets();
+	}
+
+	private static final class Entry {
+
+		final Bitmap bitmap;
+		final int size;
+		Shader shader;
+		int refs;
+
+		Entry( Bitmap bitmap ) {
+			this.bitmap = bitmap;
+			this.size = sizeOf( bitmap );
+		}
+	}
+
+	private static final LinkedHashMap<String, Entry> sEntries = new LinkedHashMap<String, Entry>( 16, 0.75f, true );
+	private static final ArrayList<Entry> sPool = new ArrayList<Entry>();
+	private static final WeakHashMap<AssetOwner, Boolean> sHiddenOwners = new WeakHashMap<AssetOwner, Boolean>();
+	private static int sMaxSize = DEFAULT_MAX_SIZE;
+	private static int sSize;
+	private static boolean sTrimmingOwners;
+	private static int sOwnersTrimSize;
+	private static Handler sMainHandler;
+	private static boolean sCallbacksRegistered;
+
+	private SharedBitmapCache() {}
+
+	/**
+	 * Acquire a reference to the bitmap stored with the given key.
+	 * 
+	 * @param key
+	 *           the key
+	 * @return the bitmap, or null if it's not in the cache. In that case no reference is acquired.
+	 */
+	public static synchronized Bitmap acquire( String key ) {
+		Entry entry = sEntries.get( key );
+		if ( entry != null ) {
+			entry.refs++;
+			return entry.bitmap;
+		}
+		return null;
+	}
+
+	/**
+	 * Store a bitmap into the cache and acquire a reference to it. If another bitmap is already stored with the same key, a
+	 * reference to that bitmap is acquired instead and returned.
+	 * 
+	 * @param key
+	 *           the key
+	 * @param bitmap
+	 *           the bitmap
+	 * @return the cached bitmap
+	 */
+	public static Bitmap put( String key, Bitmap bitmap ) {
+		if ( bitmap == null ) return null;
+
+		Entry entry;
+		AssetOwner[] owners = null;
+		synchronized ( SharedBitmapCache.class ) {
+			entry = sEntries.get( key );
+			if ( entry == null ) {
+				entry = new Entry( bitmap );
+				sEntries.put( key, entry );
+				sSize += entry.size;
+			}
+			entry.refs++;
+			trimToSize( sMaxSize );
+			if ( sSize > sMaxSize ) {
+				owners = collectHiddenOwners( sMaxSize );
+			}
+		}
+		trimOwners( owners );
+		return entry.bitmap;
+	}
+
+	/**
+	 * Release a reference previously acquired with {@link #acquire(String)} or {@link #put(String, Bitmap)}.
+	 * 
+	 * @param key
+	 *           the key, can be null
+	 */
+	public static synchronized void release( String key ) {
+		if ( key == null ) return;
+
+		Entry entry = sEntries.get( key );
+		if ( entry != null && entry.refs > 0 ) {
+			entry.refs--;
+			trimToSize( sMaxSize );
+		}
+	}
+
+	/**
+	 * Gets the shader attached to the given key.
+	 * 
+	 * @param key
+	 *           the key
+	 * @return the shader, or null
+	 */
+	public static synchronized Shader getShader( String key ) {
+		Entry entry = sEntries.get( key );
+		return entry != null ? entry.shader : null;
+	}
+
+	/**
+	 * Attach a shader, built on top of the cached bitmap, to the given key.
+	 * 
+	 * @param key
+	 *           the key
+	 * @param shader
+	 *           the shader
+	 */
+	public static synchronized void setShader( String key, Shader shader ) {
+		Entry entry = sEntries.get( key );
+		if ( entry != null ) {
+			entry.shader = shader;
+		}
+	}
+
+	/**
+	 * Give a bitmap no longer in use back to the pool, so that it can be reused by {@link #obtain(int, int, Bitmap.Config)} or
+	 * taken back with {@link #reclaim(Bitmap)}. The bitmap must not be drawn into until obtained again.
+	 * 
+	 * @param bitmap
+	 *           the bitmap, can be null
+	 */
+	public static synchronized void recycle( Bitmap bitmap ) {
+		if ( bitmap == null || bitmap.isRecycled() ) return;
+
+		for ( int i = 0; i < sPool.size(); i++ ) {
+			if ( sPool.get( i ).bitmap == bitmap ) return;
+		}
+
+		Entry entry = new Entry( bitmap );
+		sPool.add( entry );
+		sSize += entry.size;
+		trimToSize( sMaxSize );
+	}
+
+	/**
+	 * Take a pooled bitmap of the given size and configuration out of the pool. Its content is undefined.
+	 * 
+	 * @param width
+	 *           the width
+	 * @param height
+	 *           the height
+	 * @param config
+	 *           the configuration
+	 * @return the bitmap, or null if none is available
+	 */
+	public static synchronized Bitmap obtain( int width, int height, Bitmap.Config config ) {
+		for ( int i = sPool.size() - 1; i >= 0; i-- ) {
+			Bitmap bitmap = sPool.get( i ).bitmap;
+			if ( bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config ) {
+				sSize -= sPool.remove( i ).size;
+				return bitmap;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Take a bitmap given back with {@link #recycle(Bitmap)} out of the pool, if it has not been evicted or obtained by someone
+	 * else in the meantime. Its content is then unchanged.
+	 * 
+	 * @param bitmap
+	 *           the bitmap
+	 * @return true if the bitmap was still in the pool
+	 */
+	public static synchronized boolean reclaim( Bitmap bitmap ) {
+		for ( int i = 0; i < sPool.size(); i++ ) {
+			if ( sPool.get( i ).bitmap == bitmap ) {
+				sSize -= sPool.remove( i ).size;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Change the max size of the cache. Only the entries not in use are evicted.
+	 * 
+	 * @param bytes
+	 *           the new max size, in bytes
+	 */
+	public static void setMaxSize( int bytes ) {
+		AssetOwner[] owners = null;
+		synchronized ( SharedBitmapCache.class ) {
+			sMaxSize = bytes;
+			trimToSize( sMaxSize );
+			if ( sSize > sMaxSize ) {
+				owners = collectHiddenOwners( sMaxSize );
+			}
+		}
+		trimOwners( owners );
+	}
+
+	/**
+	 * Gets the max size of the cache.
+	 * 
+	 * @return the max size, in bytes
+	 */
+	public static synchronized int getMaxSize() {
+		return sMaxSize;
+	}
+
+	/**
+	 * Gets the current size of the cache.
+	 * 
+	 * @return the size, in bytes
+	 */
+	public static synchronized int size() {
+		return sSize;
+	}
+
+	/**
+	 * Mark an owner as hidden or visible. Hidden owners are asked to drop their assets when the cache is over its max size or the
+	 * memory is low. Owners are weakly referenced.
+	 * 
+	 * @param owner
+	 *           the owner
+	 * @param hidden
+	 *           true if the owner is not visible
+	 */
+	public static synchronized void setHidden( AssetOwner owner, boolean hidden ) {
+		if ( hidden ) {
+			sHiddenOwners.put( owner, Boolean.TRUE );
+		} else {
+			sHiddenOwners.remove( owner );
+		}
+	}
+
+	/**
+	 * Register the callbacks trimming the cache when the system asks the application to release memory. Only the first call has
+	 * effect. Requires API 14, does nothing on older platforms.
+	 * 
+	 * @param context
+	 *           any context of the application
+	 */
+	@TargetApi(14)
+	public static synchronized void registerComponentCallbacks( Context context ) {
+		if ( sCallbacksRegistered || android.os.Build.VERSION.SDK_INT < 14 ) return;
+
+		Context application = context.getApplicationContext();
+		if ( application != null ) {
+			application.registerComponentCallbacks( new TrimMemoryCallbacks() );
+			sCallbacksRegistered = true;
+		}
+	}
+
+	/**
+	 * Release memory according to the given level, as passed to {@link ComponentCallbacks2#onTrimMemory(int)}. From
+	 * {@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_LOW} on, the hidden owners drop their assets and all the entries not in use
+	 * are evicted, while lower levels evict the entries not in use down to half of the max size.
+	 * 
+	 * @param level
+	 *           the trim level
+	 */
+	public static void trimMemory( int level ) {
+		AssetOwner[] owners = null;
+		synchronized ( SharedBitmapCache.class ) {
+			if ( level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW ) {
+				trimToSize( 0 );
+				owners = collectHiddenOwners( 0 );
+			} else {
+				trimToSize( sMaxSize / 2 );
+			}
+		}
+		trimOwners( owners );
+	}
+
+	/**
+	 * Gets the size of a bitmap.
+	 * 
+	 * @param bitmap
+	 *           the bitmap, can be null
+	 * @return the size, in bytes
+	 */
+	public static int sizeOf( Bitmap bitmap ) {
+		return bitmap != null ? bitmap.getRowBytes() * bitmap.getHeight() : 0;
+	}
+
+	/**
+	 * Collect the hidden owners to trim. If a trim is already on its way, it evicts down to the given size too. Called with the lock
+	 * held.
+	 * 
+	 * @param bytes
+	 *           the size to evict down to, once the owners released their assets
+	 * @return the owners to pass to {@link #trimOwners(AssetOwner[])}, or null
+	 */
+	private static AssetOwner[] collectHiddenOwners( int bytes ) {
+		if ( sTrimmingOwners ) {
+			sOwnersTrimSize = Math.min( sOwnersTrimSize, bytes );
+			return null;
+		}
+		if ( sHiddenOwners.isEmpty() ) return null;
+
+		sTrimmingOwners = true;
+		sOwnersTrimSize = bytes;
+		return sHiddenOwners.keySet().toArray( new AssetOwner[sHiddenOwners.size()] );
+	}
+
+	/**
+	 * Ask the owners to drop their assets on the UI thread, right away if called from it, then evict the entries they released.
+	 * Must be called without the lock held.
+	 * 
+	 * @param owners
+	 *           the owners returned by {@link #collectHiddenOwners(int)}, can be null
+	 */
+	private static void trimOwners( AssetOwner[] owners ) {
+		if ( owners == null ) return;
+
+		TrimOwnersTask task = new TrimOwnersTask( owners );
+		if ( Looper.myLooper() == Looper.getMainLooper() ) {
+			task.run();
+		} else {
+			synchronized ( SharedBitmapCache.class ) {
+				if ( sMainHandler == null ) {
+					sMainHandler = new Handler( Looper.getMainLooper() );
+				}
+			}
+			sMainHandler.post( task );
+		}
+	}
+
+	/**
+	 * Evict the pooled bitmaps, oldest first, then the least recently used entries which are not in use until the cache size is
+	 * below the given size.
+	 * 
+	 * @param bytes
+	 *           the target size
+	 */
+	public static synchronized void trimToSize( int bytes ) {
+		while ( sSize > bytes && !sPool.isEmpty() ) {
+			sSize -= sPool.remove( 0 ).size;
+		}
+
+		Iterator<Entry> iterator = sEntries.values().iterator();
+		while ( sSize > bytes && iterator.hasNext() ) {
+			Entry entry = iterator.next();
+			if ( entry.refs == 0 ) {
+				sSize -= entry.size;
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Trims the hidden owners on the UI thread. Owners which became visible in the meantime keep their assets.
+	 */
+	private static final class TrimOwnersTask implements Runnable {
+
+		private final AssetOwner[] mOwners;
+
+		TrimOwnersTask( AssetOwner[] owners ) {
+			mOwners = owners;
+		}
+
+		@Override
+		public void run() {
+			try {
+				for ( AssetOwner owner : mOwners ) {
+					if ( owner != null && isHidden( owner ) ) {
+						owner.trimAssets();
+					}
+				}
+			} finally {
+				synchronized ( SharedBitmapCache.class ) {
+					sTrimmingOwners = false;
+					trimToSize( sOwnersTrimSize );
+				}
+			}
+		}
+
+		private static boolean isHidden( AssetOwner owner ) {
+			synchronized ( SharedBitmapCache.class ) {
+				return sHiddenOwners.containsKey( owner );
+			}
+		}
+	}
+}
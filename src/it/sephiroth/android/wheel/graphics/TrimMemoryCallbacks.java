@@ -0,0 +1,25 @@
+package it.sephiroth.android.wheel.graphics;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+
+/**
+ * Trims the {@link SharedBitmapCache} when the system asks the application to release memory.
+ */
+@TargetApi(14)
+class TrimMemoryCallbacks implements ComponentCallbacks2 {
+
+	@Override
+	public void onTrimMemory( int level ) {
+		SharedBitmapCache.trimMemory( level );
+	}
+
+	@Override
+	public void onLowMemory() {
+		SharedBitmapCache.trimMemory( TRIM_MEMORY_COMPLETE );
+	}
+
+	@Override
+	public void onConfigurationChanged( Configuration newConfig ) {}
+}
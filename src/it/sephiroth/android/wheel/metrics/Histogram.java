@@ -0,0 +1,160 @@
+package it.sephiroth.android.wheel.metrics;
+
+/**
+ * Fixed buckets histogram. The bucket bounds are given at creation time and recording a value never allocates, so it can be
+ * used from the drawing and animation paths. Every method is synchronized: values are recorded on the UI thread but can be
+ * read from any thread.
+ */
+public class Histogram {
+
+	private final long[] mBounds;
+	private final long[] mCounts;
+	private long mCount;
+	private long mSum;
+	private long mMin = Long.MAX_VALUE;
+	private long mMax = Long.MIN_VALUE;
+
+	/**
+	 * Creates a new histogram.
+	 * 
+	 * @param bounds
+	 *           the inclusive upper bound of every bucket, in ascending order. An extra bucket collects the values above the
+	 *           last bound
+	 */
+	public Histogram( long[] bounds ) {
+		mBounds = bounds.clone();
+		mCounts = new long[bounds.length + 1];
+	}
+
+	/**
+	 * Creates a histogram whose bounds double at every bucket.
+	 * 
+	 * @param first
+	 *           the upper bound of the first bucket
+	 * @param count
+	 *           the number of bounded buckets
+	 * @return the histogram
+	 */
+	public static Histogram exponential( long first, int count ) {
+		long[] bounds = new long[count];
+		for ( int i = 0; i < count; i++ ) {
+			bounds[i] = first << i;
+		}
+		return new Histogram( bounds );
+	}
+
+	/**
+	 * Record a new value.
+	 * 
+	 * @param value
+	 *           the value
+	 */
+	public synchronized void record( long value ) {
+		int i = 0;
+		while ( i < mBounds.length && value > mBounds[i] ) {
+			i++;
+		}
+		mCounts[i]++;
+		mCount++;
+		mSum += value;
+		if ( value < mMin ) mMin = value;
+		if ( value > mMax ) mMax = value;
+	}
+
+	/**
+	 * Gets the number of buckets, including the overflow one.
+	 * 
+	 * @return the buckets count
+	 */
+	public int getBucketCount() {
+		return mCounts.length;
+	}
+
+	/**
+	 * Gets the inclusive upper bound of a bucket.
+	 * 
+	 * @param index
+	 *           the bucket index
+	 * @return the upper bound, {@link Long#MAX_VALUE} for the overflow bucket
+	 */
+	public long getBucketBound( int index ) {
+		return index < mBounds.length ? mBounds[index] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Gets the number of values recorded in a bucket.
+	 * 
+	 * @param index
+	 *           the bucket index
+	 * @return the count
+	 */
+	public synchronized long getBucketValue( int index ) {
+		return mCounts[index];
+	}
+
+	/**
+	 * Copy the bucket counts into the given array.
+	 * 
+	 * @param out
+	 *           the destination, at least {@link #getBucketCount()} long
+	 */
+	public synchronized void getBucketValues( long[] out ) {
+		System.arraycopy( mCounts, 0, out, 0, mCounts.length );
+	}
+
+	public synchronized long getCount() {
+		return mCount;
+	}
+
+	public synchronized long getSum() {
+		return mSum;
+	}
+
+	/**
+	 * @return the smallest recorded value, 0 if the histogram is empty
+	 */
+	public synchronized long getMin() {
+		return mCount > 0 ? mMin : 0;
+	}
+
+	/**
+	 * @return the largest recorded value, 0 if the histogram is empty
+	 */
+	public synchronized long getMax() {
+		return mCount > 0 ? mMax : 0;
+	}
+
+	/**
+	 * Estimate a percentile as the upper bound of the bucket containing it. Values in the overflow bucket are reported as the
+	 * largest recorded value.
+	 * 
+	 * @param percentile
+	 *           the percentile, between 0 and 100
+	 * @return the estimated value, 0 if the histogram is empty
+	 */
+	public synchronized long getPercentile( float percentile ) {
+		if ( mCount == 0 ) return 0;
+		long rank = (long) Math.ceil( mCount * ( percentile / 100.0 ) );
+		long seen = 0;
+		for ( int i = 0; i < mBounds.length; i++ ) {
+			seen += mCounts[i];
+			if ( seen >= rank ) {
+				return Math.min( mBounds[i], mMax );
+			}
+		}
+		return mMax;
+	}
+
+	/**
+	 * Remove all the recorded values.
+	 */
+	public synchronized void reset() {
+		for ( int i = 0; i < mCounts.length; i++ ) {
+			mCounts[i] = 0;
+		}
+		mCount = 0;
+		mSum = 0;
+		mMin = Long.MAX_VALUE;
+		mMax = Long.MIN_VALUE;
+	}
+}
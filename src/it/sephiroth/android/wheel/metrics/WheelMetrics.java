@@ -0,0 +1,167 @@
+package it.sephiroth.android.wheel.metrics;
+
+/**
+ * Frame and interaction metrics of a single wheel. All the durations are in nanoseconds.
+ * <p>
+ * The frame gaps and the frames over budget only cover the fling animations, the snap into a slot included, whose frames are
+ * scheduled by the wheel itself. The frames of a drag follow the touch events and are not timed.
+ * <p>
+ * Sampling is cheap and never allocates, so it can stay enabled in production builds. Values are recorded on the UI thread
+ * and can be read, or {@link #reset()}, from any thread.
+ */
+public class WheelMetrics {
+
+	/** Default frame budget, one frame at 60Hz */
+	public static final long DEFAULT_FRAME_BUDGET = 16666667L;
+
+	private static final long DURATION_FIRST_BOUND = 125000L;
+	private static final int DURATION_BUCKETS = 10;
+	private static final int FRAMES_BUCKETS = 9;
+
+	private final Histogram mDrawDuration = Histogram.exponential( DURATION_FIRST_BOUND, DURATION_BUCKETS );
+	private final Histogram mLayoutDuration = Histogram.exponential( DURATION_FIRST_BOUND, DURATION_BUCKETS );
+	private final Histogram mDispatchDuration = Histogram.exponential( DURATION_FIRST_BOUND, DURATION_BUCKETS );
+	private final Histogram mFlingFrameGap = Histogram.exponential( DURATION_FIRST_BOUND, DURATION_BUCKETS );
+	private final Histogram mFlingFrames = Histogram.exponential( 1, FRAMES_BUCKETS );
+
+	private volatile long mFrameBudget = DEFAULT_FRAME_BUDGET;
+	private long mFlingFramesOverBudget;
+	private long mSkippedFrames;
+	private long mLastFlingFrame;
+	private int mCurrentFlingFrames;
+
+	/**
+	 * Change the frame budget used to detect the dropped fling frames.
+	 * 
+	 * @param nanos
+	 *           the budget, in nanoseconds
+	 */
+	public void setFrameBudget( long nanos ) {
+		mFrameBudget = nanos;
+	}
+
+	public long getFrameBudget() {
+		return mFrameBudget;
+	}
+
+	public void recordDraw( long nanos ) {
+		mDrawDuration.record( nanos );
+	}
+
+	public void recordLayout( long nanos ) {
+		mLayoutDuration.record( nanos );
+	}
+
+	public void recordDispatch( long nanos ) {
+		mDispatchDuration.record( nanos );
+	}
+
+	/**
+	 * A scroll step did not need a new frame, the rendered state being unchanged.
+	 */
+	public synchronized void recordSkippedFrame() {
+		mSkippedFrames++;
+	}
+
+	/**
+	 * A new fling animation started.
+	 * 
+	 * @param now
+	 *           the current time, in nanoseconds
+	 */
+	public synchronized void onFlingStart( long now ) {
+		mLastFlingFrame = now;
+		mCurrentFlingFrames = 0;
+	}
+
+	/**
+	 * A step of the fling animation has been performed. A frame is over budget when the gap from the previous one is long
+	 * enough to contain a dropped frame, that is more than one budget and a half.
+	 * 
+	 * @param now
+	 *           the current time, in nanoseconds
+	 */
+	public synchronized void onFlingFrame( long now ) {
+		final long gap = now - mLastFlingFrame;
+		mFlingFrameGap.record( gap );
+		if ( gap > mFrameBudget + mFrameBudget / 2 ) {
+			mFlingFramesOverBudget++;
+		}
+		mLastFlingFrame = now;
+		mCurrentFlingFrames++;
+	}
+
+	/**
+	 * The fling animation ended, or has been stopped.
+	 */
+	public synchronized void onFlingEnd() {
+		if ( mCurrentFlingFrames > 0 ) {
+			mFlingFrames.record( mCurrentFlingFrames );
+			mCurrentFlingFrames = 0;
+		}
+	}
+
+	/**
+	 * @return the histogram of the onDraw durations
+	 */
+	public Histogram getDrawDuration() {
+		return mDrawDuration;
+	}
+
+	/**
+	 * @return the histogram of the onLayout durations
+	 */
+	public Histogram getLayoutDuration() {
+		return mLayoutDuration;
+	}
+
+	/**
+	 * @return the histogram of the time spent in the scroll listeners, per dispatch
+	 */
+	public Histogram getDispatchDuration() {
+		return mDispatchDuration;
+	}
+
+	/**
+	 * @return the histogram of the gap between two consecutive fling frames
+	 */
+	public Histogram getFlingFrameGap() {
+		return mFlingFrameGap;
+	}
+
+	/**
+	 * @return the histogram of the number of frames of every fling
+	 */
+	public Histogram getFlingFrames() {
+		return mFlingFrames;
+	}
+
+	/**
+	 * @return the number of fling frames over budget, the frames of a drag are not counted
+	 * @see #onFlingFrame(long)
+	 */
+	public synchronized long getFlingFramesOverBudget() {
+		return mFlingFramesOverBudget;
+	}
+
+	/**
+	 * @return the number of scroll steps which did not need a new frame
+	 */
+	public synchronized long getSkippedFrames() {
+		return mSkippedFrames;
+	}
+
+	/**
+	 * Remove all the recorded values.
+	 */
+	public synchronized void reset() {
+		mDrawDuration.reset();
+		mLayoutDuration.reset();
+		mDispatchDuration.reset();
+		mFlingFrameGap.reset();
+		mFlingFrames.reset();
+		mFlingFramesOverBudget = 0;
+		mSkippedFrames = 0;
+		mCurrentFlingFrames = 0;
+	}
+}
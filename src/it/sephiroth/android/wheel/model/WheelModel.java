@@ -0,0 +1,247 @@
+package it.sephiroth.android.wheel.model;
+
+import it.sephiroth.android.wheel.utils.WheelMath;
+
+/**
+ * State and logic of a wheel, independent from the way it is rendered: the scroll position, its bounds, the value and tick
+ * value mapping, the rubber band applied while scrolling past the bounds and the snapping into the tick slots.
+ * <p>
+ * The model only holds primitive state and does not depend on the Android framework, so it can run off the UI thread or on a
+ * plain JVM, for instance to precompute value mappings. It is not thread safe: each thread should use its own instance, or
+ * {@link #WheelModel(WheelModel) a copy}.
+ */
+public class WheelModel {
+
+	private int mWidth;
+	private int mTicksCount;
+	private int mSizeFactor;
+	private int mPosition;
+	private float mTickSpace = 30;
+	private int mMaxX, mMinX;
+	private boolean mToLeft;
+
+	public WheelModel() {}
+
+	/**
+	 * Creates a copy of the given model.
+	 * 
+	 * @param other
+	 *           the model to copy
+	 */
+	public WheelModel( WheelModel other ) {
+		mWidth = other.mWidth;
+		mTicksCount = other.mTicksCount;
+		mSizeFactor = other.mSizeFactor;
+		mPosition = other.mPosition;
+		mTickSpace = other.mTickSpace;
+		mMaxX = other.mMaxX;
+		mMinX = other.mMinX;
+		mToLeft = other.mToLeft;
+	}
+
+	/**
+	 * Change the geometry of the wheel.
+	 * 
+	 * @param width
+	 *           the width of the wheel
+	 * @param ticksCount
+	 *           the number of ticks visible at once
+	 * @param sizeFactor
+	 *           the number of rotations allowed on each side
+	 */
+	public void setLayout( int width, int ticksCount, int sizeFactor ) {
+		mWidth = width;
+		mTicksCount = ticksCount;
+		mSizeFactor = sizeFactor;
+		mTickSpace = (float) width / ticksCount;
+		mMaxX = width * sizeFactor;
+		mMinX = -mMaxX;
+	}
+
+	public int getWidth() {
+		return mWidth;
+	}
+
+	public float getTickSpace() {
+		return mTickSpace;
+	}
+
+	public int getMinX() {
+		return mMinX;
+	}
+
+	public int getMaxX() {
+		return mMaxX;
+	}
+
+	/**
+	 * Gets the current scroll position.
+	 * 
+	 * @return the position
+	 */
+	public int getPosition() {
+		return mPosition;
+	}
+
+	/**
+	 * Change the current scroll position.
+	 * 
+	 * @param position
+	 *           the new position
+	 */
+	public void setPosition( int position ) {
+		mPosition = position;
+	}
+
+	/**
+	 * Gets the scroll position for a value.
+	 * 
+	 * @param value
+	 *           the value, between -1 and 1
+	 * @return the position
+	 */
+	public int getPosition( float value ) {
+		return (int) ( value * ( mWidth * mSizeFactor ) );
+	}
+
+	/**
+	 * Gets the current value.
+	 * 
+	 * @return the value, between -1 and 1
+	 */
+	public float getValue() {
+		return getValue( mPosition );
+	}
+
+	/**
+	 * Gets the value of a scroll position.
+	 * 
+	 * @param position
+	 *           the position
+	 * @return the value, between -1 and 1 within the bounds
+	 */
+	public float getValue( int position ) {
+		return (float) position / ( mWidth * mSizeFactor );
+	}
+
+	/**
+	 * Gets the current tick value.
+	 * 
+	 * @return the tick value
+	 */
+	public int getTickValue() {
+		return getTickValue( mPosition );
+	}
+
+	/**
+	 * Gets the tick value of a scroll position.
+	 * 
+	 * @param position
+	 *           the position
+	 * @return the tick value
+	 */
+	public int getTickValue( int position ) {
+		return WheelMath.getTickValue( position, mWidth, mTicksCount, mTickSpace );
+	}
+
+	/**
+	 * Return the total number of ticks available for scrolling.
+	 * 
+	 * @return the ticks count, 0 before the geometry is set
+	 */
+	public int getTicksCount() {
+		if ( mWidth == 0 ) return 0;
+		return (int) ( ( ( mMaxX / mWidth ) * mTicksCount ) + ( mPosition % mWidth ) / mTickSpace ) * 2;
+	}
+
+	/**
+	 * Gets the current page, the number of whole rotations from the center.
+	 * 
+	 * @return the current page
+	 */
+	public int getCurrentPage() {
+		return mPosition / mWidth;
+	}
+
+	/**
+	 * Tells the direction of the last scroll.
+	 * 
+	 * @return true if the last scroll moved towards the left
+	 */
+	public boolean isMovingLeft() {
+		return mToLeft;
+	}
+
+	/**
+	 * Compute the position reached scrolling by the given distance. Past the bounds the movement is damped more and more, as a
+	 * rubber band. The position itself is not changed.
+	 * 
+	 * @param distanceX
+	 *           the scroll distance, positive towards the left
+	 * @return the new position
+	 */
+	public int computeScroll( float distanceX ) {
+		float delta = -1 * distanceX;
+		mToLeft = delta < 0;
+
+		if ( !mToLeft ) {
+			if ( mPosition + delta > mMaxX ) {
+				delta /= ( ( (float) mPosition + delta ) - mMaxX ) / 10;
+			}
+		} else {
+			if ( mPosition + delta < mMinX ) {
+				delta /= -( ( (float) mPosition + delta ) - mMinX ) / 10;
+			}
+		}
+		return (int) ( mPosition + delta );
+	}
+
+	/**
+	 * Gets the distance to move the current position back within the bounds.
+	 * 
+	 * @return the distance, 0 if the position is within the bounds
+	 */
+	public int getBoundsDistance() {
+		if ( mPosition > mMaxX ) {
+			return mMaxX - mPosition;
+		} else if ( mPosition < mMinX ) {
+			return mMinX - mPosition;
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the distance to move the current position into the nearest tick slot, or back within the bounds.
+	 * 
+	 * @return the distance, 0 if the position is already in a slot
+	 */
+	public int getSnapDistance() {
+		int distance = getBoundsDistance();
+		if ( distance != 0 ) {
+			return distance;
+		}
+		return WheelMath.getSnapDistance( mPosition, mTickSpace, mToLeft );
+	}
+
+	/**
+	 * Gets the limited motion scroll amount.
+	 * 
+	 * @param motionToLeft
+	 *           the motion to left
+	 * @param deltaX
+	 *           the delta x
+	 * @return the limited motion scroll amount
+	 */
+	public int getLimitedMotionScrollAmount( boolean motionToLeft, int deltaX ) {
+
+		if ( motionToLeft ) {} else {
+			if ( mMaxX >= mPosition ) {
+				// The extreme child is past his boundary point!
+				return deltaX;
+			}
+		}
+
+		int centerDifference = mPosition - mMaxX;
+		return motionToLeft ? Math.max( centerDifference, deltaX ) : Math.min( centerDifference, deltaX );
+	}
+}
@@ -0,0 +1,187 @@
+package it.sephiroth.android.wheel.physics;
+
+/**
+ * Deterministic fling and scroll physics, independent from the framework scrollers. Every computation takes the time explicitly,
+ * so the same sequence of inputs always produces the same positions.<br />
+ * A fling uses a constant deceleration model, derived from the friction and the screen density, while a scroll to a given
+ * distance follows a decelerate curve over a fixed duration.
+ */
+public class FlingPhysics {
+
+	/** Default friction, same as the framework scroll friction. */
+	public static final float DEFAULT_FRICTION = 0.015f;
+
+	private static final float GRAVITY_EARTH = 9.80665f;
+	private static final float INCHES_PER_METER = 39.37f;
+	private static final float NANOS_PER_SECOND = 1000000000f;
+
+	private static final int MODE_SCROLL = 0;
+	private static final int MODE_FLING = 1;
+
+	private final float mPpi;
+	private float mDeceleration;
+
+	private int mMode;
+	private boolean mFinished = true;
+	private long mStartTime;
+	private float mDuration;
+	private int mStartX;
+	private int mFinalX;
+	private int mCurrX;
+	private int mMinX;
+	private int mMaxX;
+	private int mDistance;
+	private float mVelocity;
+
+	/**
+	 * Instantiates a new fling physics.
+	 * 
+	 * @param ppi
+	 *           the pixels per inch of the screen
+	 */
+	public FlingPhysics( float ppi ) {
+		mPpi = ppi;
+		setFriction( DEFAULT_FRICTION );
+	}
+
+	/**
+	 * Change the friction applied to flings.
+	 * 
+	 * @param friction
+	 *           the friction coefficient
+	 */
+	public void setFriction( float friction ) {
+		mDeceleration = GRAVITY_EARTH * INCHES_PER_METER * mPpi * friction;
+	}
+
+	/**
+	 * Start a fling.
+	 * 
+	 * @param time
+	 *           the start time, in nanoseconds
+	 * @param startX
+	 *           the start position
+	 * @param velocity
+	 *           the initial velocity, in pixels per second
+	 * @param minX
+	 *           the min position
+	 * @param maxX
+	 *           the max position
+	 */
+	public void fling( long time, int startX, int velocity, int minX, int maxX ) {
+		mMode = MODE_FLING;
+		mFinished = false;
+		mStartTime = time;
+		mStartX = mCurrX = startX;
+		mMinX = minX;
+		mMaxX = maxX;
+		mVelocity = Math.abs( velocity );
+		mDuration = mVelocity / mDeceleration;
+
+		int distance = (int) ( ( mVelocity * mVelocity ) / ( 2 * mDeceleration ) );
+		mDistance = velocity < 0 ? -distance : distance;
+		mFinalX = Math.min( Math.max( startX + mDistance, minX ), maxX );
+	}
+
+	/**
+	 * Start a scroll of the given distance.
+	 * 
+	 * @param time
+	 *           the start time, in nanoseconds
+	 * @param startX
+	 *           the start position
+	 * @param distance
+	 *           the distance
+	 * @param duration
+	 *           the duration, in milliseconds
+	 */
+	public void scroll( long time, int startX, int distance, int duration ) {
+		mMode = MODE_SCROLL;
+		mFinished = false;
+		mStartTime = time;
+		mStartX = mCurrX = startX;
+		mDistance = distance;
+		mFinalX = startX + distance;
+		mDuration = duration / 1000f;
+	}
+
+	/**
+	 * Move the start time of the current animation, for instance to align it to the display frames.
+	 * 
+	 * @param time
+	 *           the new start time, in nanoseconds
+	 */
+	public void setStartTime( long time ) {
+		mStartTime = time;
+	}
+
+	/**
+	 * Compute the position at the given time.
+	 * 
+	 * @param time
+	 *           the time, in nanoseconds
+	 * @return false if the animation was already finished
+	 */
+	public boolean computeOffset( long time ) {
+		if ( mFinished ) return false;
+
+		float t = getElapsedSeconds( time );
+
+		if ( t >= mDuration ) {
+			mCurrX = mFinalX;
+			mFinished = true;
+			return true;
+		}
+
+		if ( mMode == MODE_FLING ) {
+			float distance = mVelocity * t - mDeceleration * t * t / 2;
+			mCurrX = mStartX + Math.round( mDistance < 0 ? -distance : distance );
+			mCurrX = Math.min( Math.max( mCurrX, mMinX ), mMaxX );
+			if ( mCurrX == mFinalX ) {
+				mFinished = true;
+			}
+		} else {
+			float x = t / mDuration;
+			x = 1 - ( 1 - x ) * ( 1 - x );
+			mCurrX = mStartX + Math.round( x * mDistance );
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the velocity at the given time.
+	 * 
+	 * @param time
+	 *           the time, in nanoseconds
+	 * @return the absolute velocity, in pixels per second
+	 */
+	public float getCurrVelocity( long time ) {
+		if ( mFinished ) return 0;
+
+		float t = Math.min( getElapsedSeconds( time ), mDuration );
+		if ( mMode == MODE_FLING ) {
+			return Math.max( mVelocity - mDeceleration * t, 0 );
+		}
+		return 2 * Math.abs( mDistance ) * ( 1 - t / mDuration ) / mDuration;
+	}
+
+	public int getCurrX() {
+		return mCurrX;
+	}
+
+	public int getFinalX() {
+		return mFinalX;
+	}
+
+	public boolean isFinished() {
+		return mFinished;
+	}
+
+	public void forceFinished( boolean finished ) {
+		mFinished = finished;
+	}
+
+	private float getElapsedSeconds( long time ) {
+		return Math.max( time - mStartTime, 0 ) / NANOS_PER_SECOND;
+	}
+}
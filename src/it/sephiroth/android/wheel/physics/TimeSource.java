@@ -0,0 +1,23 @@
+package it.sephiroth.android.wheel.physics;
+
+/**
+ * Source of the time used to advance the fling physics.
+ */
+public interface TimeSource {
+
+	/** Monotonic system time, same time base of the display frames timestamps. */
+	TimeSource SYSTEM = new TimeSource() {
+
+		@Override
+		public long nanoTime() {
+			return System.nanoTime();
+		}
+	};
+
+	/**
+	 * Current time.
+	 * 
+	 * @return the current time, in nanoseconds
+	 */
+	long nanoTime();
+}
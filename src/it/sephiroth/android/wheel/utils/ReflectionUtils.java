@@ -2,14 +2,45 @@ package it.sephiroth.android.wheel.utils;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reflection helpers. Resolved classes, constructors and methods are cached, so repeated calls only pay for the invocation
+ * itself. The most recent failed lookups are cached too, in a bounded cache, so that probing for missing classes or methods
+ * cannot grow it without limit. Use {@link #getConstructorInvoker(String, Class...)} and
+ * {@link #getMethodInvoker(Class, String, Class...)} to resolve once and keep the result for calls on hot paths.
+ */
 public class ReflectionUtils {
 
+	/** Max number of failed lookups kept in the cache. */
+	static final int MAX_CACHED_FAILURES = 64;
+
+	/** Classes by name */
+	private static final ConcurrentHashMap<String, Class<?>> sClasses = new ConcurrentHashMap<String, Class<?>>();
+
+	/** Constructors and methods by {@link MemberKey} */
+	private static final ConcurrentHashMap<MemberKey, Member> sMembers = new ConcurrentHashMap<MemberKey, Member>();
+
+	/** The {@link Throwable} raised by the failed lookups, by class name or {@link MemberKey}, least recently used first */
+	private static final LinkedHashMap<Object, Throwable> sFailures = new LinkedHashMap<Object, Throwable>( 16, 0.75f, true ) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<Object, Throwable> eldest ) {
+			return size() > MAX_CACHED_FAILURES;
+		}
+	};
+
 	public static final class ReflectionException extends Exception {
 
 		private static final long serialVersionUID = 1L;
@@ -23,7 +54,6 @@ public class ReflectionUtils {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	/**
 	 * Creates a new instance of the passed class
 	 * @param className
@@ -43,24 +73,15 @@ public class ReflectionUtils {
 			throw new ReflectionException( "parameterTypes and parameterValues must have the same length" );
 		}
 
-		Class<?> clazz;
-		try {
-			clazz = Class.forName( className );
-		} catch ( ClassNotFoundException e ) {
-			throw new ReflectionException( e );
-		} catch ( ExceptionInInitializerError e ) {
-			throw new ReflectionException( e );
-		}
-
-		Constructor<?> ctor;
-		try {
-			ctor = clazz.getConstructor( paramTypes );
-		} catch ( SecurityException e ) {
-			throw new ReflectionException( e );
-		} catch ( NoSuchMethodException e ) {
-			throw new ReflectionException( e );
+		Object ctor = lookupConstructor( lookupClass( className ), paramTypes );
+		if ( ctor instanceof Throwable ) {
+			throw new ReflectionException( (Throwable) ctor );
 		}
+		return newInstance( (Constructor<?>) ctor, paramValues );
+	}
 
+	@SuppressWarnings("unchecked")
+	private static <T> T newInstance( Constructor<?> ctor, Object[] paramValues ) throws ReflectionException {
 		try {
 			return (T) ctor.newInstance( paramValues );
 		} catch ( IllegalArgumentException e ) {
@@ -74,32 +95,231 @@ public class ReflectionUtils {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private static <T> T helper( Object target, final String className, final String methodName, final Class<?>[] argTypes, final Object[] args ) throws ReflectionException {
+	/**
+	 * Resolve a class by name, through the cache.
+	 * 
+	 * @param className
+	 *           the full qualified name of the class
+	 * @return the class, or the {@link Throwable} raised while loading it
+	 */
+	private static Object lookupClass( String className ) {
+		Class<?> result = sClasses.get( className );
+		if ( result != null ) return result;
+
+		Throwable failure = getFailure( className );
+		if ( failure != null ) return failure;
+
 		try {
-			Class<?> cls;
-			if ( target != null ) {
-				cls = target.getClass();
-			} else {
-				cls = Class.forName( className );
-				target = cls;
-			}
+			result = Class.forName( className );
+		} catch ( ClassNotFoundException e ) {
+			failure = e;
+		} catch ( ExceptionInInitializerError e ) {
+			failure = e;
+		} catch ( LinkageError e ) {
+			failure = e;
+		}
 
-			Method method;
+		if ( result == null ) {
+			putFailure( className, failure );
+			return failure;
+		}
+		sClasses.put( className, result );
+		return result;
+	}
 
-			if ( null != argTypes ) {
-				method = getMethod( cls, methodName, argTypes );
-				return (T) method.invoke( target, args );
-			} else {
-				method = getMethod( cls, methodName );
-				return (T) method.invoke( target );
-			}
+	/**
+	 * Resolve a public constructor, through the cache.
+	 * 
+	 * @param clazz
+	 *           the class, or the failure returned by {@link #lookupClass(String)}
+	 * @param paramTypes
+	 *           the parameter types
+	 * @return the constructor, or the {@link Throwable} raised while looking it up
+	 */
+	private static Object lookupConstructor( Object clazz, Class<?>[] paramTypes ) {
+		if ( clazz instanceof Throwable ) return clazz;
+
+		MemberKey key = new MemberKey( (Class<?>) clazz, null, paramTypes );
+		Member result = sMembers.get( key );
+		if ( result != null ) return result;
+
+		Throwable failure = getFailure( key );
+		if ( failure != null ) return failure;
+
+		try {
+			result = ( (Class<?>) clazz ).getConstructor( paramTypes );
+		} catch ( SecurityException e ) {
+			failure = e;
+		} catch ( NoSuchMethodException e ) {
+			failure = e;
+		}
+		return putMember( key, result, failure );
+	}
+
+	/**
+	 * Resolve a public method, through the cache.
+	 * 
+	 * @param clazz
+	 *           the class, or the failure returned by {@link #lookupClass(String)}
+	 * @param methodName
+	 *           the method name
+	 * @param paramTypes
+	 *           the parameter types, null for none
+	 * @return the method, or the {@link Throwable} raised while looking it up
+	 */
+	private static Object lookupMethod( Object clazz, String methodName, Class<?>[] paramTypes ) {
+		if ( clazz instanceof Throwable ) return clazz;
+
+		MemberKey key = new MemberKey( (Class<?>) clazz, methodName, paramTypes );
+		Member result = sMembers.get( key );
+		if ( result != null ) return result;
+
+		Throwable failure = getFailure( key );
+		if ( failure != null ) return failure;
+
+		try {
+			result = ( (Class<?>) clazz ).getMethod( methodName, paramTypes );
+		} catch ( SecurityException e ) {
+			failure = e;
+		} catch ( NoSuchMethodException e ) {
+			failure = e;
+		}
+		return putMember( key, result, failure );
+	}
+
+	/**
+	 * Cache the result of a constructor or method lookup.
+	 * 
+	 * @param key
+	 *           the lookup key, which may share the caller's parameter types array
+	 * @param member
+	 *           the member found, null if the lookup failed
+	 * @param failure
+	 *           the {@link Throwable} raised by the failed lookup
+	 * @return the member, or the failure
+	 */
+	private static Object putMember( MemberKey key, Member member, Throwable failure ) {
+		if ( member == null ) {
+			putFailure( key.copy(), failure );
+			return failure;
+		}
+		sMembers.put( key.copy(), member );
+		return member;
+	}
+
+	private static Throwable getFailure( Object key ) {
+		synchronized ( sFailures ) {
+			return sFailures.get( key );
+		}
+	}
+
+	private static void putFailure( Object key, Throwable failure ) {
+		synchronized ( sFailures ) {
+			sFailures.put( key, failure );
+		}
+	}
+
+	/**
+	 * Forget all the resolved classes and members, including the failed lookups.
+	 */
+	public static void clearCache() {
+		sClasses.clear();
+		sMembers.clear();
+		synchronized ( sFailures ) {
+			sFailures.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of resolved classes and members in the cache.
+	 */
+	static int getResolvedCount() {
+		return sClasses.size() + sMembers.size();
+	}
+
+	/**
+	 * Gets the number of failed lookups in the cache, at most {@link #MAX_CACHED_FAILURES}.
+	 */
+	static int getFailedCount() {
+		synchronized ( sFailures ) {
+			return sFailures.size();
+		}
+	}
+
+	/**
+	 * Resolve once a public constructor, to create many instances without further lookups.
+	 * 
+	 * @param className
+	 *           the full qualified name of the class
+	 * @param paramTypes
+	 *           the parameter types of the constructor
+	 * @return the invoker, or null if the class or the constructor do not exist. No exception is raised in that case
+	 */
+	public static <T> ConstructorInvoker<T> getConstructorInvoker( String className, Class<?>... paramTypes ) {
+		Object ctor = lookupConstructor( lookupClass( className ), paramTypes );
+		if ( ctor instanceof Throwable ) return null;
+		return new ConstructorInvoker<T>( (Constructor<?>) ctor );
+	}
 
+	/**
+	 * Resolve once a public method, to invoke it many times without further lookups.
+	 * 
+	 * @param classObject
+	 *           the class declaring or inheriting the method
+	 * @param methodName
+	 *           the method name
+	 * @param paramTypes
+	 *           the parameter types of the method
+	 * @return the invoker, or null if the method does not exist. No exception is raised in that case
+	 */
+	public static <T> MethodInvoker<T> getMethodInvoker( Class<?> classObject, String methodName, Class<?>... paramTypes ) {
+		Object method = lookupMethod( classObject, methodName, paramTypes );
+		if ( method instanceof Throwable ) return null;
+		return new MethodInvoker<T>( (Method) method );
+	}
+
+	/**
+	 * @see #getMethodInvoker(Class, String, Class...)
+	 * @param className
+	 *           the full qualified name of the class
+	 */
+	public static <T> MethodInvoker<T> getMethodInvoker( String className, String methodName, Class<?>... paramTypes ) {
+		Object method = lookupMethod( lookupClass( className ), methodName, paramTypes );
+		if ( method instanceof Throwable ) return null;
+		return new MethodInvoker<T>( (Method) method );
+	}
+
+	private static <T> T helper( Object target, final String className, final String methodName, final Class<?>[] argTypes, final Object[] args ) throws ReflectionException {
+		if ( methodName == null ) {
+			throw new ReflectionException( new NullPointerException( "methodName" ) );
+		}
+
+		Object cls;
+		if ( target != null ) {
+			cls = target.getClass();
+		} else if ( className != null ) {
+			cls = lookupClass( className );
+			target = cls;
+		} else {
+			throw new ReflectionException( new NullPointerException( "className" ) );
+		}
+
+		Object method = lookupMethod( cls, methodName, argTypes );
+		if ( method instanceof Throwable ) {
+			throw new ReflectionException( (Throwable) method );
+		}
+		return invoke( (Method) method, target, argTypes != null ? args : null );
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T invoke( Method method, Object target, Object[] args ) throws ReflectionException {
+		try {
+			return (T) method.invoke( target, args );
 		} catch ( final IllegalAccessException e ) {
 			throw new ReflectionException( e );
-		} catch ( final InvocationTargetException e ) {
+		} catch ( final IllegalArgumentException e ) {
 			throw new ReflectionException( e );
-		} catch ( final ClassNotFoundException e ) {
+		} catch ( final InvocationTargetException e ) {
 			throw new ReflectionException( e );
 		} catch ( NullPointerException e ) {
 			throw new ReflectionException( e );
@@ -172,16 +392,102 @@ public class ReflectionUtils {
 	}
 
 	public static Method getMethod( Class<?> classObject, String methodName, Class<?>[] paramTypes ) {
-		try {
-			return classObject.getMethod( methodName, paramTypes );
-		} catch ( NoSuchMethodException e ) {}
-		return null;
+		Object method = lookupMethod( classObject, methodName, paramTypes );
+		return method instanceof Method ? (Method) method : null;
 	}
 
 	public static Method getMethod( Class<?> classObject, String methodName ) {
-		try {
-			return classObject.getMethod( methodName );
-		} catch ( NoSuchMethodException e ) {}
-		return null;
+		return getMethod( classObject, methodName, null );
+	}
+
+	/**
+	 * A constructor resolved once, see {@link ReflectionUtils#getConstructorInvoker(String, Class...)}
+	 */
+	public static final class ConstructorInvoker<T> {
+
+		private final Constructor<?> mConstructor;
+
+		ConstructorInvoker( Constructor<?> constructor ) {
+			mConstructor = constructor;
+		}
+
+		/**
+		 * Creates a new instance.
+		 * 
+		 * @param paramValues
+		 *           the constructor arguments
+		 * @return the new instance
+		 * @throws ReflectionException
+		 *            if the arguments do not match or the constructor throws
+		 */
+		public T newInstance( Object... paramValues ) throws ReflectionException {
+			return ReflectionUtils.<T> newInstance( mConstructor, paramValues );
+		}
+	}
+
+	/**
+	 * A method resolved once, see {@link ReflectionUtils#getMethodInvoker(Class, String, Class...)}
+	 */
+	public static final class MethodInvoker<T> {
+
+		private final Method mMethod;
+
+		MethodInvoker( Method method ) {
+			mMethod = method;
+		}
+
+		/**
+		 * Invoke the method.
+		 * 
+		 * @param target
+		 *           the receiver, null for static methods
+		 * @param args
+		 *           the method arguments
+		 * @return the method result
+		 * @throws ReflectionException
+		 *            if the arguments do not match or the method throws
+		 */
+		public T invoke( Object target, Object... args ) throws ReflectionException {
+			return ReflectionUtils.<T> invoke( mMethod, target, args );
+		}
+	}
+
+	/**
+	 * Cache key of a constructor or method. Lookups use the caller's parameter types array, only the stored keys own a copy.
+	 */
+	private static final class MemberKey {
+
+		final Class<?> clazz;
+		final String name;
+		final Class<?>[] types;
+		final int hash;
+
+		MemberKey( Class<?> clazz, String name, Class<?>[] types ) {
+			this.clazz = clazz;
+			this.name = name;
+			this.types = types;
+			int h = clazz.hashCode();
+			h = 31 * h + ( name != null ? name.hashCode() : 0 );
+			h = 31 * h + Arrays.hashCode( types );
+			this.hash = h;
+		}
+
+		MemberKey copy() {
+			return new MemberKey( clazz, name, types != null ? types.clone() : null );
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			if ( this == o ) return true;
+			if ( !( o instanceof MemberKey ) ) return false;
+			MemberKey other = (MemberKey) o;
+			return clazz == other.clazz && ( name == null ? other.name == null : name.equals( other.name ) )
+					&& Arrays.equals( types, other.types );
+		}
 	}
 }
@@ -0,0 +1,101 @@
+package it.sephiroth.android.wheel.utils;
+
+import it.sephiroth.android.wheel.easing.BatchEasing;
+
+/**
+ * Pure math used by the wheel to place its ticks, compute its value and snap into the tick slots. It does not depend on the
+ * Android framework, so it can run and be measured on a plain JVM.
+ */
+public final class WheelMath {
+
+	private WheelMath() {}
+
+	/**
+	 * Compute the x, the eased position and the horizontal scale of every tick for the given scroll position.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @param width
+	 *           the wheel width
+	 * @param ticksCount
+	 *           the ticks count
+	 * @param easing
+	 *           the ticks easing
+	 * @param ticksX
+	 *           output, the x of every tick, wrapped inside the width
+	 * @param positions
+	 *           output, the eased position of every tick, between 0 and 1
+	 * @param scales
+	 *           output, the horizontal scale of every tick
+	 * @return the index of the leftmost tick
+	 */
+	public static int computeTicks( float deltaX, int width, int ticksCount, BatchEasing easing, float[] ticksX, float[] positions,
+			float[] scales ) {
+		final int w = width;
+		final int total = ticksCount;
+		int first = 0;
+
+		for ( int i = 0; i < total; i++ ) {
+			float x = ( deltaX + ( ( (float) i / total ) * w ) );
+
+			if ( x < 0 ) {
+				x = w - ( -x % w );
+			} else {
+				x = x % w;
+			}
+			ticksX[i] = x;
+
+			if ( x < ticksX[first] ) {
+				first = i;
+			}
+		}
+
+		// sin( PI * x / w ) is the sine ease-out over half the width
+		easing.easeInOut( ticksX, 0, 1.0f, w, positions, total );
+		easing.easeOut( ticksX, 0, 1.0f, w / 2.0f, scales, total );
+		return first;
+	}
+
+	/**
+	 * Compute the distance needed to move the given scroll position into the nearest tick slot.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @param tickSpace
+	 *           the space between two ticks
+	 * @param toLeft
+	 *           true if the last movement was towards the left
+	 * @return the distance, or 0 if the position is already in a slot
+	 */
+	public static int getSnapDistance( int deltaX, float tickSpace, boolean toLeft ) {
+		int diff = Math.round( deltaX % tickSpace );
+		int diff2 = (int) ( tickSpace - diff );
+		int diff3 = (int) ( tickSpace + diff );
+
+		if ( diff != 0 && diff2 != 0 && diff3 != 0 ) {
+			if ( Math.abs( diff ) < ( tickSpace / 2 ) ) {
+				return -diff;
+			} else {
+				return toLeft ? -diff3 : diff2;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Compute the tick value of the given scroll position.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @param width
+	 *           the wheel width
+	 * @param ticksCount
+	 *           the ticks count
+	 * @param tickSpace
+	 *           the space between two ticks
+	 * @return the tick value
+	 */
+	public static int getTickValue( int deltaX, int width, int ticksCount, float tickSpace ) {
+		return (int) ( ( ( deltaX / width ) * ticksCount ) + ( deltaX % width ) / tickSpace );
+	}
+}
@@ -0,0 +1,97 @@
+package it.sephiroth.android.wheel.view;
+
+import it.sephiroth.android.wheel.physics.TimeSource;
+import it.sephiroth.android.wheel.view.IFlingRunnable.FlingRunnableView;
+import it.sephiroth.android.wheel.view.Wheel.FlingEngineFactory;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+/**
+ * The built-in fling engines. Every factory lives in its own class, so the engines using newer platform APIs are only loaded
+ * on the devices supporting them.
+ */
+final class FlingEngines {
+
+	private static volatile FlingEngineFactory sDefault;
+
+	private FlingEngines() {}
+
+	/**
+	 * Gets the best engine for the running platform. It is resolved on the first call and reused for the whole process.
+	 * 
+	 * @return the factory
+	 */
+	static FlingEngineFactory getDefault() {
+		FlingEngineFactory result = sDefault;
+		if ( result == null ) {
+			if ( android.os.Build.VERSION.SDK_INT >= 16 ) {
+				result = new Vsync();
+			} else if ( android.os.Build.VERSION.SDK_INT > 8 ) {
+				result = new Scroller();
+			} else {
+				result = new Legacy();
+			}
+			sDefault = result;
+		}
+		return result;
+	}
+
+	/** {@link FlingVsyncRunnable}, API 16 */
+	static final class Vsync implements FlingEngineFactory {
+
+		@Override
+		public IFlingRunnable create( FlingRunnableView parent, int animationDuration ) {
+			return new FlingVsyncRunnable( parent, animationDuration );
+		}
+	}
+
+	/** {@link Fling9Runnable}, API 9 */
+	static final class Scroller implements FlingEngineFactory {
+
+		@Override
+		public IFlingRunnable create( FlingRunnableView parent, int animationDuration ) {
+			return new Fling9Runnable( parent, animationDuration );
+		}
+	}
+
+	/** {@link Fling8Runnable}, every API level */
+	static final class Legacy implements FlingEngineFactory {
+
+		@Override
+		public IFlingRunnable create( FlingRunnableView parent, int animationDuration ) {
+			return new Fling8Runnable( parent, animationDuration );
+		}
+	}
+
+	/** {@link FlingJavaRunnable}, every API level */
+	static final class Java implements FlingEngineFactory {
+
+		private final TimeSource mTimeSource;
+		private final float mFriction;
+
+		/** The system time and the platform scroll friction. */
+		Java() {
+			this( TimeSource.SYSTEM, Float.NaN );
+		}
+
+		/**
+		 * @param timeSource
+		 *           the source of the time
+		 * @param friction
+		 *           the friction, NaN for the platform scroll friction
+		 */
+		Java( TimeSource timeSource, float friction ) {
+			mTimeSource = timeSource;
+			mFriction = friction;
+		}
+
+		@Override
+		public IFlingRunnable create( FlingRunnableView parent, int animationDuration ) {
+			View view = (View) parent;
+			FlingJavaRunnable result = new FlingJavaRunnable( parent, animationDuration,
+					view.getResources().getDisplayMetrics().density * 160.0f, mTimeSource );
+			result.setFriction( Float.isNaN( mFriction ) ? ViewConfiguration.getScrollFriction() : mFriction );
+			return result;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package it.sephiroth.android.wheel.view;
+
+import it.sephiroth.android.wheel.physics.FlingPhysics;
+import it.sephiroth.android.wheel.physics.TimeSource;
+
+/**
+ * Fling runnable backed by {@link FlingPhysics} instead of the framework scrollers. The time is read from an injectable
+ * {@link TimeSource}, so the same fling can be replayed and measured on a plain JVM.
+ */
+class FlingJavaRunnable extends IFlingRunnable {
+
+	private final FlingPhysics mPhysics;
+	private final TimeSource mTimeSource;
+
+	public FlingJavaRunnable( FlingRunnableView parent, int animationDuration, float ppi, TimeSource timeSource ) {
+		super( parent, animationDuration );
+		mPhysics = new FlingPhysics( ppi );
+		mTimeSource = timeSource;
+	}
+
+	/**
+	 * Change the friction applied to flings.
+	 * 
+	 * @param friction
+	 *           the friction
+	 */
+	public void setFriction( float friction ) {
+		mPhysics.setFriction( friction );
+	}
+
+	@Override
+	public float getCurrVelocity() {
+		return mPhysics.getCurrVelocity( mTimeSource.nanoTime() );
+	}
+
+	@Override
+	public boolean isFinished() {
+		return mPhysics.isFinished();
+	}
+
+	@Override
+	protected void _startUsingVelocity( int initialX, int velocity ) {
+		mPhysics.fling( mTimeSource.nanoTime(), initialX, velocity, mParent.getMinX(), mParent.getMaxX() );
+	}
+
+	@Override
+	protected void _startUsingDistance( int initialX, int distance ) {
+		mPhysics.scroll( mTimeSource.nanoTime(), initialX, distance, mAnimationDuration );
+	}
+
+	@Override
+	protected void forceFinished( boolean finished ) {
+		mPhysics.forceFinished( finished );
+	}
+
+	@Override
+	protected boolean computeScrollOffset() {
+		return mPhysics.computeOffset( mTimeSource.nanoTime() );
+	}
+
+	@Override
+	protected int getCurrX() {
+		return mPhysics.getCurrX();
+	}
+
+	@Override
+	public boolean springBack( int startX, int startY, int minX, int maxX, int minY, int maxY ) {
+		return false;
+	}
+}
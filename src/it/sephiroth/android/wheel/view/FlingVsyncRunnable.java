@@ -0,0 +1,108 @@
+package it.sephiroth.android.wheel.view;
+
+import it.sephiroth.android.wheel.physics.FlingPhysics;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.WindowManager;
+
+/**
+ * Fling runnable driven by the display vsync. Every animation step runs inside a {@link Choreographer.FrameCallback} and
+ * computes the position using the frame timestamp, so exactly one step is performed per frame, whatever the refresh rate of the
+ * display. Animations start one frame before the first frame they are drawn in, so that the first frame already moves.
+ * <p>
+ * Flings use the {@link FlingPhysics} deceleration and stop at the bounds, without the overscroll of the framework
+ * {@link android.widget.OverScroller}.
+ */
+@TargetApi(16)
+class FlingVsyncRunnable extends IFlingRunnable implements Choreographer.FrameCallback {
+
+	private final Choreographer mChoreographer;
+	private final FlingPhysics mPhysics;
+	private long mFrameTime;
+	private long mFrameInterval;
+	private boolean mFirstFrame;
+
+	public FlingVsyncRunnable( FlingRunnableView parent, int animationDuration ) {
+		super( parent, animationDuration );
+		Context context = ( (View) parent ).getContext();
+		mPhysics = new FlingPhysics( context.getResources().getDisplayMetrics().density * 160.0f );
+		mPhysics.setFriction( ViewConfiguration.getScrollFriction() );
+		mChoreographer = Choreographer.getInstance();
+
+		float refreshRate = 0;
+		WindowManager windowManager = (WindowManager) context.getSystemService( Context.WINDOW_SERVICE );
+		if ( windowManager != null ) {
+			refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+		}
+		mFrameInterval = (long) ( 1000000000L / ( refreshRate >= 1 ? refreshRate : 60 ) );
+	}
+
+	@Override
+	public void doFrame( long frameTimeNanos ) {
+		if ( mFirstFrame ) {
+			// the start time was read outside of the frames, usually after the last vsync: align it to the frame before this one
+			mFirstFrame = false;
+			mPhysics.setStartTime( frameTimeNanos - mFrameInterval );
+		}
+		mFrameTime = frameTimeNanos;
+		run();
+	}
+
+	@Override
+	protected void schedule() {
+		mChoreographer.postFrameCallback( this );
+	}
+
+	@Override
+	protected void unschedule() {
+		mChoreographer.removeFrameCallback( this );
+	}
+
+	@Override
+	public float getCurrVelocity() {
+		return mPhysics.getCurrVelocity( mFrameTime );
+	}
+
+	@Override
+	public boolean isFinished() {
+		return mPhysics.isFinished();
+	}
+
+	@Override
+	protected void _startUsingVelocity( int initialX, int velocity ) {
+		// frame timestamps share the System.nanoTime time base
+		mFrameTime = System.nanoTime();
+		mPhysics.fling( mFrameTime, initialX, velocity, mParent.getMinX(), mParent.getMaxX() );
+		mFirstFrame = true;
+	}
+
+	@Override
+	protected void _startUsingDistance( int initialX, int distance ) {
+		mFrameTime = System.nanoTime();
+		mPhysics.scroll( mFrameTime, initialX, distance, mAnimationDuration );
+		mFirstFrame = true;
+	}
+
+	@Override
+	protected void forceFinished( boolean finished ) {
+		mPhysics.forceFinished( finished );
+	}
+
+	@Override
+	protected boolean computeScrollOffset() {
+		return mPhysics.computeOffset( mFrameTime );
+	}
+
+	@Override
+	protected int getCurrX() {
+		return mPhysics.getCurrX();
+	}
+
+	@Override
+	public boolean springBack( int startX, int startY, int minX, int maxX, int minY, int maxY ) {
+		return false;
+	}
+}
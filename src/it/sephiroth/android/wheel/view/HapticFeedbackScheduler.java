@@ -0,0 +1,85 @@
+package it.sephiroth.android.wheel.view;
+
+import android.os.SystemClock;
+import android.view.HapticFeedbackConstants;
+import android.view.View;
+
+/**
+ * Schedules the haptic feedback of a single view. All the feedback requests received within the same frame are coalesced into
+ * one, and no feedback is performed if the previous one happened less than the min interval ago.<br />
+ * The feedback goes through {@link View#performHapticFeedback(int)}, which honours both the haptic feedback setting of the view
+ * and the system setting of the user.
+ */
+class HapticFeedbackScheduler implements Runnable {
+
+	/** Default min interval between two feedbacks, in milliseconds. */
+	static final long DEFAULT_MIN_INTERVAL = 40;
+
+	private final View mView;
+	private boolean mEnabled;
+	private boolean mPending;
+	private long mLastFeedbackTime;
+	private long mMinInterval = DEFAULT_MIN_INTERVAL;
+
+	public HapticFeedbackScheduler( View view ) {
+		mView = view;
+	}
+
+	public void setEnabled( boolean enabled ) {
+		mEnabled = enabled;
+		if ( !enabled ) {
+			cancel();
+		}
+	}
+
+	public boolean isEnabled() {
+		return mEnabled;
+	}
+
+	/**
+	 * Change the min interval between two feedbacks.
+	 * 
+	 * @param millis
+	 *           the interval, in milliseconds
+	 */
+	public void setMinInterval( long millis ) {
+		mMinInterval = millis;
+	}
+
+	/**
+	 * Request a feedback, performed on the next frame.
+	 */
+	public void schedule() {
+		if ( !mEnabled || mPending ) return;
+
+		mPending = true;
+		if ( android.os.Build.VERSION.SDK_INT >= 16 ) {
+			mView.postOnAnimation( this );
+		} else {
+			mView.post( this );
+		}
+	}
+
+	/**
+	 * Cancel the pending feedback, if any.
+	 */
+	public void cancel() {
+		if ( mPending ) {
+			mView.removeCallbacks( this );
+			mPending = false;
+		}
+	}
+
+	@Override
+	public void run() {
+		mPending = false;
+
+		long now = SystemClock.uptimeMillis();
+		if ( !mEnabled || now - mLastFeedbackTime < mMinInterval ) {
+			return;
+		}
+		mLastFeedbackTime = now;
+
+		mView.performHapticFeedback( HapticFeedbackConstants.VIRTUAL_KEY );
+	}
+}
@@ -1,6 +1,15 @@
 package it.sephiroth.android.wheel.view;
 
-abstract class IFlingRunnable implements Runnable {
+import it.sephiroth.android.wheel.metrics.WheelMetrics;
+
+/**
+ * Base class of the engines animating the wheel flings. Subclasses provide the scroll computation, this class drives the
+ * animation loop. See {@link Wheel.FlingEngineFactory} to plug a custom engine.
+ * <p>
+ * {@link #run()} is called on every frame of a fling and must not allocate: engines keep their state in fields set when the
+ * fling starts, and {@link #schedule()} reposts this same runnable.
+ */
+public abstract class IFlingRunnable implements Runnable {
 
 	public static interface FlingRunnableView {
 
@@ -21,6 +30,7 @@ abstract class IFlingRunnable implements Runnable {
 	protected boolean mShouldStopFling;
 	protected FlingRunnableView mParent;
 	protected int mAnimationDuration;
+	protected WheelMetrics mMetrics;
 
 	protected static final String LOG_TAG = "fling";
 
@@ -29,25 +39,57 @@ abstract class IFlingRunnable implements Runnable {
 		mAnimationDuration = animationDuration;
 	}
 
+	/**
+	 * Set the metrics receiving the fling frames, null to disable sampling.
+	 * 
+	 * @param metrics
+	 *           the metrics
+	 */
+	public void setMetrics( WheelMetrics metrics ) {
+		mMetrics = metrics;
+	}
+
 	public int getLastFlingX() {
 		return mLastFlingX;
 	}
 
 	protected void startCommon() {
-		mParent.removeCallbacks( this );
+		unschedule();
+
+		if ( mMetrics != null ) {
+			mMetrics.onFlingEnd();
+		}
 	}
 
 	public void stop( boolean scrollIntoSlots ) {
-		mParent.removeCallbacks( this );
+		unschedule();
 		endFling( scrollIntoSlots );
 	}
 
+	/**
+	 * Schedule the next animation step.
+	 */
+	protected void schedule() {
+		mParent.post( this );
+	}
+
+	/**
+	 * Remove the pending animation step, if any.
+	 */
+	protected void unschedule() {
+		mParent.removeCallbacks( this );
+	}
+
 	public void startUsingDistance( int initialX, int distance ) {
 		if ( distance == 0 ) return;
 		startCommon();
 		mLastFlingX = initialX;
 		_startUsingDistance( mLastFlingX, distance );
-		mParent.post( this );
+		schedule();
+
+		if ( mMetrics != null ) {
+			mMetrics.onFlingStart( System.nanoTime() );
+		}
 	}
 
 	public void startUsingVelocity( int initialX, int initialVelocity ) {
@@ -55,13 +97,21 @@ abstract class IFlingRunnable implements Runnable {
 		startCommon();
 		mLastFlingX = initialX;
 		_startUsingVelocity( mLastFlingX, initialVelocity );
-		mParent.post( this );
+		schedule();
+
+		if ( mMetrics != null ) {
+			mMetrics.onFlingStart( System.nanoTime() );
+		}
 	}
 
 	protected void endFling( boolean scrollIntoSlots ) {
 		forceFinished( true );
 		mLastFlingX = 0;
 
+		if ( mMetrics != null ) {
+			mMetrics.onFlingEnd();
+		}
+
 		if ( scrollIntoSlots ) {
 			mParent.scrollIntoSlots();
 		}
@@ -71,6 +121,10 @@ abstract class IFlingRunnable implements Runnable {
 	public void run() {
 		mShouldStopFling = false;
 
+		if ( mMetrics != null ) {
+			mMetrics.onFlingFrame( System.nanoTime() );
+		}
+
 		final boolean more = computeScrollOffset();
 		int x = getCurrX();
 
@@ -78,7 +132,7 @@ abstract class IFlingRunnable implements Runnable {
 
 		if ( more && !mShouldStopFling ) {
 			mLastFlingX = x;
-			mParent.post( this );
+			schedule();
 		} else {
 			endFling( true );
 		}
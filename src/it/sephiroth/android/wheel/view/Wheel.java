@@ -1,28 +1,41 @@
 package it.sephiroth.android.wheel.view;
 
 import it.sephiroth.android.wheel.R;
-import it.sephiroth.android.wheel.easing.Easing;
+import it.sephiroth.android.wheel.easing.BatchEasing;
 import it.sephiroth.android.wheel.easing.Sine;
 import it.sephiroth.android.wheel.graphics.LinearGradientDrawable;
-import it.sephiroth.android.wheel.utils.ReflectionUtils;
-import it.sephiroth.android.wheel.utils.ReflectionUtils.ReflectionException;
+import it.sephiroth.android.wheel.graphics.SharedBitmapCache;
+import it.sephiroth.android.wheel.metrics.WheelMetrics;
+import it.sephiroth.android.wheel.model.WheelModel;
+import it.sephiroth.android.wheel.physics.TimeSource;
+import it.sephiroth.android.wheel.utils.WheelMath;
 import it.sephiroth.android.wheel.view.IFlingRunnable.FlingRunnableView;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.Manifest;
 import android.content.Context;
+import android.content.pm.PackageManager;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
 import android.graphics.BitmapShader;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
 import android.graphics.DrawFilter;
+import android.graphics.LightingColorFilter;
 import android.graphics.LinearGradient;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.PixelFormat;
 import android.graphics.PaintFlagsDrawFilter;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.Shader.TileMode;
+import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable.Orientation;
-import android.os.Handler;
-import android.os.Message;
 import android.os.Vibrator;
 import android.util.AttributeSet;
 import android.util.Log;
@@ -32,7 +45,18 @@ import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewConfiguration;
 
-public class Wheel extends View implements OnGestureListener, FlingRunnableView, VibrationWidget {
+/**
+ * A horizontal wheel selecting a value between -1 and 1 by dragging or flinging its ticks.
+ * <p>
+ * Once laid out, the per frame paths do not allocate: {@link #onDraw(Canvas)}, {@link #onTouchEvent(MotionEvent)},
+ * {@link #trackMotionScroll(int)}, the fling steps run by the {@link IFlingRunnable} and the dispatch to the
+ * {@link OnScrollListener}s only work on objects created at construction or layout time. Bitmaps, shaders and the other
+ * assets are created only when the size, the ticks or the colors change.
+ * <p>
+ * Bitmap assets are shared through the {@link SharedBitmapCache}, within its global budget. They are released when the wheel is
+ * detached, or when it is not visible and the budget is exceeded or the memory is low, and obtained again when it is next drawn.
+ */
+public class Wheel extends View implements OnGestureListener, FlingRunnableView, VibrationWidget, SharedBitmapCache.AssetOwner {
 
 	/** The Constant LOG_TAG. */
 	static final String LOG_TAG = "wheel";
@@ -90,38 +114,240 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 		void onLayout( View view );
 	}
 
-	static final int MSG_VIBRATE = 1;
+	/**
+	 * Creates the engine animating the flings of a wheel. Register a custom one with
+	 * {@link Wheel#setFlingEngineFactory(FlingEngineFactory)}.
+	 */
+	public interface FlingEngineFactory {
+
+		/**
+		 * Creates a new engine.
+		 * 
+		 * @param parent
+		 *           the wheel the engine animates
+		 * @param animationDuration
+		 *           the duration of the snap animations, in milliseconds
+		 * @return the engine
+		 */
+		IFlingRunnable create( FlingRunnableView parent, int animationDuration );
+	}
+
+	/**
+	 * Lightweight snapshot of the value and of the configuration of a wheel. Keep one with every item of a list and bind it to the
+	 * recycled wheels with {@link Wheel#setState(State)}: when the ticks and the rotations do not change, only the value is
+	 * applied and the wheel is not laid out again.
+	 */
+	public static final class State {
+
+		private final float mValue;
+		private final int mTicks;
+		private final int mRotations;
+
+		/**
+		 * Instantiates a new state.
+		 * 
+		 * @param value
+		 *           the value, between -1.0f and 1.0f
+		 * @param ticks
+		 *           the number of ticks displayed
+		 * @param rotations
+		 *           the wheel scale factor
+		 */
+		public State( float value, int ticks, int rotations ) {
+			mValue = Math.min( Math.max( value, -1 ), 1 );
+			mTicks = ticks;
+			mRotations = rotations;
+		}
+
+		public float getValue() {
+			return mValue;
+		}
+
+		public int getTicks() {
+			return mTicks;
+		}
+
+		public int getRotations() {
+			return mRotations;
+		}
+	}
+
+	/** Fling engine backed by the pure Java fling physics, available on every API level. */
+	public static final FlingEngineFactory FLING_ENGINE_JAVA = new FlingEngines.Java();
+
+	/** Fling engine backed by the framework scroller, available on every API level. */
+	public static final FlingEngineFactory FLING_ENGINE_LEGACY = new FlingEngines.Legacy();
+
+	/**
+	 * Fling engine backed by the framework overscroller, with its fling curve and overscroll at the bounds. It was the default
+	 * engine on every platform from API 9 before the vsync engine. Requires API 9.
+	 */
+	public static final FlingEngineFactory FLING_ENGINE_OVERSCROLLER = new FlingEngines.Scroller();
+
+	static volatile FlingEngineFactory sFlingEngineFactory;
+
+	/** Ticks are positioned and drawn one by one on every frame. */
+	public static final int TICKS_RENDER_DEFAULT = 0;
+
+	/**
+	 * Ticks are pre-baked at layout time for a set of phases and drawn with a single bitmap per frame. Wheels too large for the
+	 * atlas to fit a texture draw the ticks one by one instead.
+	 */
+	public static final int TICKS_RENDER_ATLAS = 1;
+
+	/** All the ticks are laid out into a single vertex mesh and drawn with one draw call per frame. */
+	public static final int TICKS_RENDER_MESH = 2;
+
+	/** {@link OnScrollListener#onScroll(Wheel, float, int)} is called for every scroll step. */
+	public static final int SCROLL_DISPATCH_ALWAYS = 0;
+
+	/** {@link OnScrollListener#onScroll(Wheel, float, int)} is called at most once per frame, with the latest value. */
+	public static final int SCROLL_DISPATCH_FRAME = 1;
+
+	/** {@link OnScrollListener#onScroll(Wheel, float, int)} is called only when the tick value changes. */
+	public static final int SCROLL_DISPATCH_TICK = 2;
+
+	/**
+	 * {@link OnScrollListener#onScroll(Wheel, float, int)} is throttled according to the time the listener took the last time it
+	 * has been called, so that the listener never takes more than half of the time. The latest value is always delivered.
+	 */
+	public static final int SCROLL_DISPATCH_ADAPTIVE = 3;
+
+	static final OnScrollListener[] NO_SCROLL_LISTENERS = new OnScrollListener[0];
+	static final OnLayoutListener[] NO_LAYOUT_LISTENERS = new OnLayoutListener[0];
+
+	/** Max interval between two adaptive dispatches, in nanoseconds. */
+	static final long MAX_ADAPTIVE_DISPATCH_INTERVAL = 250000000L;
+
+	/** Max number of phases baked into the ticks atlas. */
+	static final int MAX_ATLAS_PHASES = 32;
+
+	/** Max size, in bytes, of the ticks atlas bitmap. */
+	static final int MAX_ATLAS_BYTES = 4 * 1024 * 1024;
+
+	/**
+	 * Max width and height, in pixels, of the ticks atlas bitmap: the smallest max texture size of the devices. Larger bitmaps are
+	 * not drawn by the hardware canvas.
+	 */
+	static final int MAX_ATLAS_TEXTURE_SIZE = 2048;
+
+	/**
+	 * Transparent border, in pixels, around every tick of the mesh bitmap. The bitmap filtering does not blend the tick edges into
+	 * the gap columns, which are stretched over the whole space between two ticks.
+	 */
+	static final int MESH_TICK_BORDER = 1;
+
+	/** Bitmap assets, shared through the {@link SharedBitmapCache}. */
+	static final int ASSET_TICK = 0;
+	static final int ASSET_INDICATOR = 1;
+	static final int ASSET_VIGNETTE = 2;
+	static final int ASSET_ATLAS = 3;
+	static final int ASSET_MESH = 4;
+	static final int ASSET_COUNT = 5;
+
+	/** Colors of the top and bottom bevel of the value indicator. */
+	static final int INDICATOR_SHADOW_COLOR = 0xFF666666;
+	static final int BEVEL_HIGHLIGHT_COLOR = 0xFFFFFFFF;
+
+	/** No value posted with {@link #postValue(float, boolean)} is waiting to be applied. */
+	static final long NO_PENDING_VALUE = -1L;
+
+	/** No animated value is being reached, the wheel snaps to the nearest tick once the animation ends. */
+	static final int NO_SCROLL_TARGET = Integer.MIN_VALUE;
+
+	/** Alpha of the vignette at the view edges, and the fraction of the width it fades out in. */
+	static final int VIGNETTE_ALPHA = 0xdd;
+	static final float VIGNETTE_EDGE = 0.2f;
+
+	/** Number of entries of the tint table used with the static layer. */
+	static final int TINT_LUT_SIZE = 64;
+
 	int mPaddingLeft = 0;
 	int mPaddingRight = 0;
 	int mPaddingTop = 0;
 	int mPaddingBottom = 0;
 	int mWidth, mHeight;
 	boolean mInLayout = false;
-	int mMaxX, mMinX;
 	OnScrollListener mScrollListener;
 	OnLayoutListener mLayoutListener;
+	volatile OnScrollListener[] mScrollListeners = NO_SCROLL_LISTENERS;
+	volatile OnLayoutListener[] mLayoutListeners = NO_LAYOUT_LISTENERS;
+	final Object mListenersLock = new Object();
 	Paint mPaint;
 	Shader mShader3;
 	Bitmap mTickBitmap;
 	Bitmap mIndicator;
+	Bitmap mVignette;
 	DrawFilter mFast, mDF;
 	GestureDetector mGestureDetector;
 	boolean mIsFirstScroll;
 	IFlingRunnable mFlingRunnable;
 	int mAnimationDuration = 200;
-	boolean mToLeft;
 	int mTouchSlop;
 	float mIndicatorX = 0;
-	int mOriginalDeltaX = 0;
-	float mTickSpace = 30;
+	final WheelModel mModel = new WheelModel();
 	int mWheelSizeFactor = 2;
 	int mTicksCount = 18;
 	float mTicksSize = 7.0f;
-	Vibrator mVibrator;
-	static Handler mVibrationHandler;
-	Easing mTicksEasing = new Sine();
+	HapticFeedbackScheduler mHapticFeedback;
+
+	/** The device has a vibrator and the VIBRATE permission is granted. */
+	boolean mVibrationAvailable;
+	BatchEasing mTicksEasing = new Sine();
+	float[] mTicksX;
+	float[] mTicksPosition;
+	float[] mTicksScale;
 	Matrix mDrawMatrix = new Matrix();
 	boolean mForceLayout;
+	int mTicksRenderMode = TICKS_RENDER_DEFAULT;
+	Bitmap mTicksAtlas;
+	int mAtlasPhases;
+	Rect mAtlasSrc = new Rect();
+	Rect mAtlasDst = new Rect();
+	Bitmap mTicksMesh;
+	float[] mMeshVerts;
+	String[] mAssetKeys = new String[ASSET_COUNT];
+	int mScrollDispatchMode = SCROLL_DISPATCH_ALWAYS;
+	ScrollDispatcher mScrollDispatcher = new ScrollDispatcher();
+	boolean mScrollDispatchPending;
+	long mLastDispatchTime;
+	long mDispatchInterval;
+	int mTicksColor = 0xFFCCCCCC;
+	int mIndicatorColor = 0xFF00BBFF;
+	int mIndicatorEdgeColor = 0xFF0076E7;
+	int mVignetteColor = 0xFF000000;
+	WheelMetrics mMetrics;
+	StaticLayer mStaticLayer;
+	int mBevelTop, mBevelBottom;
+	Shader mTicksShader;
+	Shader mIndicatorShader;
+	Shader mIndicatorBevelShader;
+	boolean mShadersDirty = true;
+	ColorFilter[] mTintFilters;
+	Shader[] mTicksBandShaders;
+	boolean mTintsDirty = true;
+	boolean mRendered;
+	long mRenderedTicks;
+	int mRenderedIndicator;
+	int mRenderedWidth, mRenderedHeight;
+	DrawFilter mRenderedFilter;
+	final AtomicLong mPendingValue = new AtomicLong( NO_PENDING_VALUE );
+	final PendingValueApplier mPendingValueApplier = new PendingValueApplier();
+
+	/** Position of the animated value being reached, kept as is instead of snapped. {@link #NO_SCROLL_TARGET} if none. */
+	int mScrollTarget = NO_SCROLL_TARGET;
+
+	/** Written on the UI thread, read by {@link #postValue(float, boolean)} from any thread. */
+	volatile boolean mAttached;
+
+	/** The bitmap assets have been released by {@link #trimAssets()}, obtain them again before drawing. */
+	boolean mAssetsTrimmed;
+
+	/** The bitmap assets are being obtained, and the cache may ask the hidden owners to trim meanwhile. */
+	boolean mObtainingAssets;
+
+	/** Value bound with {@link #setState(State)} before the layout it depends on, NaN if none. */
+	float mBoundValue = Float.NaN;
 	private int[] mBgColors = { 0xffa1a1a1, 0xffa1a1a1, 0xffffffff, 0xffa1a1a1, 0xffa1a1a1 };
 	private float[] mBgPositions = { 0, 0.2f, 0.5f, 0.8f, 1f };
 
@@ -164,19 +390,205 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	}
 
 	/**
-	 * Sets the on scroll listener.
+	 * Sets the on scroll listener. It replaces the listener previously set with this method, while the listeners added with
+	 * {@link #addOnScrollListener(OnScrollListener)} are kept.
 	 * 
 	 * @param listener
 	 *           the new on scroll listener
 	 */
 	public void setOnScrollListener( OnScrollListener listener ) {
-		mScrollListener = listener;
+		synchronized ( mListenersLock ) {
+			removeOnScrollListener( mScrollListener );
+			mScrollListener = listener;
+			addOnScrollListener( listener );
+		}
 	}
 
+	/**
+	 * Sets the on layout listener. It replaces the listener previously set with this method, while the listeners added with
+	 * {@link #addOnLayoutListener(OnLayoutListener)} are kept.
+	 * 
+	 * @param listener
+	 *           the new on layout listener
+	 */
 	public void setOnLayoutListener( OnLayoutListener listener ) {
-		mLayoutListener = listener;
+		synchronized ( mListenersLock ) {
+			removeOnLayoutListener( mLayoutListener );
+			mLayoutListener = listener;
+			addOnLayoutListener( listener );
+		}
+	}
+
+	/**
+	 * Add a scroll listener. Listeners can be safely added or removed from inside a callback: the change is applied starting from
+	 * the next event.
+	 * 
+	 * @param listener
+	 *           the listener
+	 */
+	public void addOnScrollListener( OnScrollListener listener ) {
+		if ( listener == null ) return;
+
+		synchronized ( mListenersLock ) {
+			final OnScrollListener[] listeners = mScrollListeners;
+			OnScrollListener[] result = new OnScrollListener[listeners.length + 1];
+			System.arraycopy( listeners, 0, result, 0, listeners.length );
+			result[listeners.length] = listener;
+			mScrollListeners = result;
+		}
+	}
+
+	/**
+	 * Remove a scroll listener.
+	 * 
+	 * @param listener
+	 *           the listener
+	 */
+	public void removeOnScrollListener( OnScrollListener listener ) {
+		if ( listener == null ) return;
+
+		synchronized ( mListenersLock ) {
+			final OnScrollListener[] listeners = mScrollListeners;
+			for ( int i = 0; i < listeners.length; i++ ) {
+				if ( listeners[i] == listener ) {
+					if ( listeners.length == 1 ) {
+						mScrollListeners = NO_SCROLL_LISTENERS;
+					} else {
+						OnScrollListener[] result = new OnScrollListener[listeners.length - 1];
+						System.arraycopy( listeners, 0, result, 0, i );
+						System.arraycopy( listeners, i + 1, result, i, listeners.length - i - 1 );
+						mScrollListeners = result;
+					}
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add a layout listener.
+	 * 
+	 * @param listener
+	 *           the listener
+	 */
+	public void addOnLayoutListener( OnLayoutListener listener ) {
+		if ( listener == null ) return;
+
+		synchronized ( mListenersLock ) {
+			final OnLayoutListener[] listeners = mLayoutListeners;
+			OnLayoutListener[] result = new OnLayoutListener[listeners.length + 1];
+			System.arraycopy( listeners, 0, result, 0, listeners.length );
+			result[listeners.length] = listener;
+			mLayoutListeners = result;
+		}
+	}
+
+	/**
+	 * Remove a layout listener.
+	 * 
+	 * @param listener
+	 *           the listener
+	 */
+	public void removeOnLayoutListener( OnLayoutListener listener ) {
+		if ( listener == null ) return;
+
+		synchronized ( mListenersLock ) {
+			final OnLayoutListener[] listeners = mLayoutListeners;
+			for ( int i = 0; i < listeners.length; i++ ) {
+				if ( listeners[i] == listener ) {
+					if ( listeners.length == 1 ) {
+						mLayoutListeners = NO_LAYOUT_LISTENERS;
+					} else {
+						OnLayoutListener[] result = new OnLayoutListener[listeners.length - 1];
+						System.arraycopy( listeners, 0, result, 0, i );
+						System.arraycopy( listeners, i + 1, result, i, listeners.length - i - 1 );
+						mLayoutListeners = result;
+					}
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Change how often {@link OnScrollListener#onScroll(Wheel, float, int)} is called while the wheel is scrolling.
+	 * 
+	 * @param mode
+	 *           one of {@link #SCROLL_DISPATCH_ALWAYS}, {@link #SCROLL_DISPATCH_FRAME}, {@link #SCROLL_DISPATCH_TICK} or
+	 *           {@link #SCROLL_DISPATCH_ADAPTIVE}
+	 */
+	public void setScrollDispatchMode( int mode ) {
+		mScrollDispatchMode = mode;
+		mDispatchInterval = 0;
+	}
+
+	/**
+	 * Gets the current scroll dispatch mode.
+	 * 
+	 * @return the scroll dispatch mode
+	 */
+	public int getScrollDispatchMode() {
+		return mScrollDispatchMode;
 	}
 	
+	/**
+	 * Enable or disable the collection of the frame and interaction metrics. Metrics are disabled by default, when enabled
+	 * sampling costs a couple of clock reads per frame and never allocates.
+	 * 
+	 * @param enabled
+	 *           true to start collecting the metrics
+	 * @see #getMetrics()
+	 */
+	public void setMetricsEnabled( boolean enabled ) {
+		if ( enabled && mMetrics == null ) {
+			mMetrics = new WheelMetrics();
+		} else if ( !enabled ) {
+			mMetrics = null;
+		}
+		mFlingRunnable.setMetrics( mMetrics );
+	}
+
+	/**
+	 * Gets the metrics collected so far.
+	 * 
+	 * @return the metrics, null if they are not enabled
+	 * @see #setMetricsEnabled(boolean)
+	 */
+	public WheelMetrics getMetrics() {
+		return mMetrics;
+	}
+
+	/**
+	 * Gets a snapshot of the current value and configuration, to be bound again later with {@link #setState(State)}.
+	 * 
+	 * @return the state
+	 */
+	public State getState() {
+		return new State( Float.isNaN( mBoundValue ) ? getValue() : mBoundValue, mTicksCount, mWheelSizeFactor );
+	}
+
+	/**
+	 * Bind a state, as when a wheel is recycled for another item of a list. The wheel is laid out again only if the ticks or the
+	 * rotations change, otherwise only the value is applied. No scroll event is fired.
+	 * 
+	 * @param state
+	 *           the state
+	 */
+	public void setState( State state ) {
+		setTicks( state.getTicks() );
+		setWheelScaleFactor( state.getRotations() );
+
+		if ( mForceLayout || mWidth == 0 ) {
+			// the position depends on the layout, apply the value once laid out
+			mScrollTarget = NO_SCROLL_TARGET;
+			mFlingRunnable.stop( false );
+			mBoundValue = state.getValue();
+		} else {
+			mBoundValue = Float.NaN;
+			setValue( state.getValue(), false );
+		}
+	}
+
 	/**
 	 * change the current wheel position and value
 	 * @param value - the new value. it should be between -1.0f and 1.0f
@@ -184,9 +596,9 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 */
 	public void setValue( float value, boolean fireScrollEvent ) {
 		if( value >= -1 && value <= 1 ) {
-			int w = getRealWidth();
+			mScrollTarget = NO_SCROLL_TARGET;
 			mFlingRunnable.stop( false );
-			mOriginalDeltaX = (int) ( value * ( w * mWheelSizeFactor ) );
+			mModel.setPosition( mModel.getPosition( value ) );
 			invalidate();
 			
 			if( fireScrollEvent ) {
@@ -195,6 +607,79 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 		}
 	}	
 
+	/**
+	 * Publish a new value from any thread. The value is applied on the UI thread at most once per frame: values posted before the
+	 * previous one has been applied replace it, so intermediate values are dropped rather than queued. This makes it suitable
+	 * for high rate sources such as sensors or remote controls. Values posted while the wheel is detached are applied once it is
+	 * attached again.
+	 * <p>
+	 * Unlike {@link #setValue(float, boolean)} no scroll event is fired when the value is applied without animation. Animated
+	 * values are reached with the same animation used to snap the wheel and notify the scroll listeners once reached. Both paths
+	 * land on the exact value, the wheel is not snapped to the nearest tick unless the animation is interrupted by a touch.
+	 * 
+	 * @param value
+	 *           the new value, between -1.0f and 1.0f. Values out of range are clamped
+	 * @param animate
+	 *           true to animate the wheel towards the value
+	 */
+	public void postValue( float value, boolean animate ) {
+		if ( Float.isNaN( value ) ) return;
+
+		final long packed = ( animate ? 1L << 32 : 0L ) | ( Float.floatToIntBits( value ) & 0xFFFFFFFFL );
+		if ( mPendingValue.getAndSet( packed ) == NO_PENDING_VALUE && mAttached ) {
+			// only the first value of a frame schedules the applier
+			schedulePendingValue();
+		}
+	}
+
+	/**
+	 * Schedule the applier of the pending value. Runnables posted to a detached view from another thread can be lost before API
+	 * 24, so values posted while detached are only scheduled by {@link #onAttachedToWindow()}, which also schedules again any
+	 * value left pending by a lost or refused post.
+	 * 
+	 * @return false if the message queue refused the applier, the value then stays pending until attached again
+	 */
+	private boolean schedulePendingValue() {
+		if ( android.os.Build.VERSION.SDK_INT >= 16 ) {
+			postOnAnimation( mPendingValueApplier );
+			return true;
+		}
+		return post( mPendingValueApplier );
+	}
+
+	/**
+	 * Applies on the UI thread the latest value published with {@link Wheel#postValue(float, boolean)}.
+	 */
+	private class PendingValueApplier implements Runnable {
+
+		@Override
+		public void run() {
+			final long packed = mPendingValue.getAndSet( NO_PENDING_VALUE );
+			if ( packed == NO_PENDING_VALUE ) return;
+
+			final float value = Math.min( Math.max( Float.intBitsToFloat( (int) packed ), -1 ), 1 );
+			final boolean animate = ( packed >>> 32 ) != 0;
+			final int position = mModel.getPosition();
+			final int target = mModel.getPosition( value );
+
+			if ( animate ) {
+				mScrollTarget = target;
+				if ( target != position ) {
+					mFlingRunnable.startUsingDistance( position, target - position );
+				} else if ( !mFlingRunnable.isFinished() ) {
+					mFlingRunnable.stop( true );
+				}
+			} else if ( target != position || !mFlingRunnable.isFinished() ) {
+				mScrollTarget = NO_SCROLL_TARGET;
+				mFlingRunnable.stop( false );
+				mModel.setPosition( target );
+				if ( !isRendered( target ) ) {
+					invalidate();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Initializer.
 	 * 
@@ -207,16 +692,11 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 */
 	private void init( Context context, AttributeSet attrs, int defStyle ) {
 
-		if ( android.os.Build.VERSION.SDK_INT > 8 ) {
-			try {
-				mFlingRunnable = (IFlingRunnable) ReflectionUtils.newInstance( "it.sephiroth.android.wheel.view.Fling9Runnable",
-						new Class<?>[] { FlingRunnableView.class, int.class }, this, mAnimationDuration );
-			} catch ( ReflectionException e ) {
-				mFlingRunnable = new Fling8Runnable( this, mAnimationDuration );
-			}
-		} else {
-			mFlingRunnable = new Fling8Runnable( this, mAnimationDuration );
+		FlingEngineFactory factory = sFlingEngineFactory;
+		if ( factory == null ) {
+			factory = FlingEngines.getDefault();
 		}
+		mFlingRunnable = factory.create( this, mAnimationDuration );
 
 		TypedArray a = context.obtainStyledAttributes( attrs, R.styleable.Wheel, defStyle, 0 );
 
@@ -235,57 +715,100 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 
 		mTouchSlop = ViewConfiguration.get( context ).getScaledTouchSlop();
 
+		mHapticFeedback = new HapticFeedbackScheduler( this );
+		mVibrationAvailable = isVibrationAvailable( context );
+		setVibrationEnabled( true );
+		setBackgroundDrawable( new LinearGradientDrawable( Orientation.LEFT_RIGHT, mBgColors, mBgPositions ) );
+		SharedBitmapCache.registerComponentCallbacks( context );
+	}
+
+	/**
+	 * Register the factory of the fling engines used by the wheels created from now on. The engine of the existing wheels is not
+	 * changed.
+	 * 
+	 * @param factory
+	 *           the factory, null to restore the best built-in engine for the running platform
+	 */
+	public static void setFlingEngineFactory( FlingEngineFactory factory ) {
+		sFlingEngineFactory = factory;
+	}
+
+	/**
+	 * Gets the factory of the fling engines used by the new wheels.
+	 * 
+	 * @return the registered factory, or the built-in default
+	 */
+	public static FlingEngineFactory getFlingEngineFactory() {
+		FlingEngineFactory factory = sFlingEngineFactory;
+		return factory != null ? factory : FlingEngines.getDefault();
+	}
+
+	/**
+	 * Creates a fling engine backed by the pure Java fling physics, like {@link #FLING_ENGINE_JAVA}, reading the time of the fling
+	 * steps from the given source. With a fake source the same fling is replayed step by step, for instance in tests.
+	 * 
+	 * @param timeSource
+	 *           the source of the time
+	 * @param friction
+	 *           the friction applied to the flings, {@link ViewConfiguration#getScrollFriction()} for the platform one
+	 * @return the factory
+	 */
+	public static FlingEngineFactory createJavaFlingEngine( TimeSource timeSource, float friction ) {
+		return new FlingEngines.Java( timeSource, friction );
+	}
+
+	/**
+	 * Enable/Disable the vibration feedback. The feedback stays disabled when the device has no vibrator or the VIBRATE permission
+	 * is missing, and it also honours {@link #setHapticFeedbackEnabled(boolean)} and the haptic feedback system setting.
+	 */
+	@Override
+	public void setVibrationEnabled( boolean value ) {
+		mHapticFeedback.setEnabled( value && mVibrationAvailable );
+	}
+
+	/**
+	 * Check that the device has a vibrator and that the application is allowed to use it.
+	 * 
+	 * @param context
+	 *           the context
+	 * @return true if the vibration feedback can be enabled
+	 */
+	static boolean isVibrationAvailable( Context context ) {
+		Vibrator vibrator;
 		try {
-			mVibrator = (Vibrator) context.getSystemService( Context.VIBRATOR_SERVICE );
+			vibrator = (Vibrator) context.getSystemService( Context.VIBRATOR_SERVICE );
 		} catch ( Exception e ) {
 			Log.e( LOG_TAG, e.toString() );
+			return false;
 		}
 
-		if ( mVibrator != null ) {
-			setVibrationEnabled( true );
+		if ( vibrator == null || ( android.os.Build.VERSION.SDK_INT >= 11 && !vibrator.hasVibrator() ) ) {
+			return false;
 		}
-		setBackgroundDrawable( new LinearGradientDrawable( Orientation.LEFT_RIGHT, mBgColors, mBgPositions ) );
+		return context.checkCallingOrSelfPermission( Manifest.permission.VIBRATE ) == PackageManager.PERMISSION_GRANTED;
 	}
 
 	/**
-	 * Enable/Disable the vibration feedback
+	 * Get the current vibration status
 	 */
 	@Override
-	public synchronized void setVibrationEnabled( boolean value ) {
-		if ( !value ) {
-			mVibrationHandler = null;
-		} else {
-			if ( null == mVibrationHandler ) {
-				mVibrationHandler = new Handler() {
-
-					@Override
-					public void handleMessage( Message msg ) {
-						super.handleMessage( msg );
-
-						switch ( msg.what ) {
-							case MSG_VIBRATE:
-								try {
-									mVibrator.vibrate( 10 );
-								} catch ( SecurityException e ) {
-									// missing VIBRATE permission
-								}
-						}
-					}
-				};
-			}
-		}
+	public boolean getVibrationEnabled() {
+		return mHapticFeedback.isEnabled();
 	}
 
 	/**
-	 * Get the current vibration status
+	 * Change the min interval between two vibration feedbacks. Tick changes happening more often than that, as during a fast
+	 * fling, do not produce any further feedback.
+	 * 
+	 * @param millis
+	 *           the interval, in milliseconds
 	 */
-	@Override
-	public synchronized boolean getVibrationEnabled() {
-		return mVibrationHandler != null;
+	public void setVibrationMinInterval( long millis ) {
+		mHapticFeedback.setMinInterval( millis );
 	}
 
 	/**
-	 * Make bitmap3.
+	 * Make the vignette mask, tinted at draw time with the vignette color.
 	 * 
 	 * @param width
 	 *           the width
@@ -295,12 +818,12 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 */
 	private Bitmap makeBitmap3( int width, int height ) {
 
-		Bitmap bm = Bitmap.createBitmap( width, height, Bitmap.Config.ARGB_8888 );
+		Bitmap bm = Bitmap.createBitmap( width, height, Bitmap.Config.ALPHA_8 );
 		Canvas c = new Canvas( bm );
 		Paint p = new Paint( Paint.ANTI_ALIAS_FLAG );
 
-		int colors[] = { 0xdd000000, 0x00000000, 0x00000000, 0xdd000000 };
-		float positions[] = { 0f, 0.2f, 0.8f, 1f };
+		int colors[] = { VIGNETTE_ALPHA << 24, 0x00000000, 0x00000000, VIGNETTE_ALPHA << 24 };
+		float positions[] = { 0f, VIGNETTE_EDGE, 1f - VIGNETTE_EDGE, 1f };
 		LinearGradient gradient = new LinearGradient( 0, 0, width, 0, colors, positions, TileMode.REPEAT );
 
 		p.setShader( gradient );
@@ -311,7 +834,8 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	}
 
 	/**
-	 * Make ticker bitmap.
+	 * Make the tick mask, shared by the ticks and the indicator and colored at draw time by the shaders built in
+	 * {@link #updateShaders()}.
 	 * 
 	 * @param width
 	 *           the width
@@ -322,126 +846,640 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	private Bitmap makeTickerBitmap( int width, int height ) {
 		float ellipse = width / 2;
 
-		Bitmap bm = Bitmap.createBitmap( width, height, Bitmap.Config.ARGB_8888 );
+		Bitmap bm = Bitmap.createBitmap( width, height, Bitmap.Config.ALPHA_8 );
 		Canvas c = new Canvas( bm );
 
 		Paint p = new Paint( Paint.ANTI_ALIAS_FLAG );
 		p.setDither( true );
 
-		p.setColor( 0xFF888888 );
+		p.setColor( 0xFF000000 );
 
-		float h = (float) height;
-		float y = ( h + 10.0f ) / 10.0f;
+		float y = getTickMargin( height );
 		float y2 = y * 2.5f;
 
 		RectF rect = new RectF( 0, y, width, height - y2 );
 		c.drawRoundRect( rect, ellipse, ellipse, p );
 
-		p.setColor( 0xFFFFFFFF );
-		rect = new RectF( 0, y2, width, height - y );
+		rect.set( 0, y2, width, height - y );
 		c.drawRoundRect( rect, ellipse, ellipse, p );
 
-		p.setColor( 0xFFCCCCCC );
-		rect = new RectF( 0, y + 2, width, height - ( y + 2 ) );
+		rect.set( 0, y + 2, width, height - ( y + 2 ) );
 		c.drawRoundRect( rect, ellipse, ellipse, p );
 		return bm;
 	}
 
 	/**
-	 * Make bitmap indicator.
+	 * Gets the vertical margin of the ticks for the given view height.
 	 * 
-	 * @param width
-	 *           the width
 	 * @param height
 	 *           the height
-	 * @return the bitmap
+	 * @return the margin
 	 */
-	private Bitmap makeBitmapIndicator( int width, int height ) {
-
-		float ellipse = width / 2;
-		float h = (float) height;
-		float y = ( h + 10.0f ) / 10.0f;
-		float y2 = y * 2.5f;
-
-		Bitmap bm = Bitmap.createBitmap( width, height, Bitmap.Config.ARGB_8888 );
-		Canvas c = new Canvas( bm );
-
-		Paint p = new Paint( Paint.ANTI_ALIAS_FLAG );
-		p.setDither( true );
-
-		p.setColor( 0xFF666666 );
-		RectF rect = new RectF( 0, y, width, height - y2 );
-		c.drawRoundRect( rect, ellipse, ellipse, p );
-
-		p.setColor( 0xFFFFFFFF );
-		rect = new RectF( 0, y2, width, height - y );
-		c.drawRoundRect( rect, ellipse, ellipse, p );
-
-		rect = new RectF( 0, y + 2, width, height - ( y + 2 ) );
-		int colors[] = { 0xFF0076E7, 0xFF00BBFF, 0xFF0076E7 };
-		float positions[] = { 0f, 0.5f, 1f };
-		LinearGradient gradient = new LinearGradient( 0, 0, width, 0, colors, positions, TileMode.REPEAT );
+	static float getTickMargin( int height ) {
+		return ( height + 10.0f ) / 10.0f;
+	}
 
-		p.setShader( gradient );
-		c.drawRoundRect( rect, ellipse, ellipse, p );
+	/**
+	 * Gets a darker shade of a color, used for the top bevel of the ticks and for the edges of the indicator.
+	 * 
+	 * @param color
+	 *           the color
+	 * @return the shade, with the same alpha of the original color
+	 */
+	static int getShadowColor( int color ) {
+		return Color.argb( Color.alpha( color ), Color.red( color ) * 2 / 3, Color.green( color ) * 2 / 3, Color.blue( color ) * 2 / 3 );
+	}
 
-		return bm;
+	/**
+	 * Rebuild the shaders coloring the tick mask. The ticks get a darker top bevel and a white bottom one around the ticks color.
+	 * The indicator body is a horizontal gradient, lighter at its center, and its bevel is drawn over it with a second shader
+	 * transparent in the middle.
+	 */
+	private void updateShaders() {
+		final float height = mHeight;
+		final float y = getTickMargin( mHeight ) + 2;
+		mBevelTop = Math.round( y );
+		mBevelBottom = Math.max( Math.round( height - y ), mBevelTop );
+
+		final float top = mBevelTop / height;
+		final float bottom = mBevelBottom / height;
+		final float[] positions = { 0, top, top, bottom, bottom, 1 };
+		final int shadow = getShadowColor( mTicksColor ) | 0xFF000000;
+		final int body = mTicksColor | 0xFF000000;
+
+		// the paint alpha is applied over the shader colors
+		mTicksShader = new LinearGradient( 0, 0, 0, height, new int[] { shadow, shadow, body, body, BEVEL_HIGHLIGHT_COLOR,
+				BEVEL_HIGHLIGHT_COLOR }, positions, TileMode.CLAMP );
+		mIndicatorBevelShader = new LinearGradient( 0, 0, 0, height, new int[] { INDICATOR_SHADOW_COLOR, INDICATOR_SHADOW_COLOR, 0,
+				0, BEVEL_HIGHLIGHT_COLOR, BEVEL_HIGHLIGHT_COLOR }, positions, TileMode.CLAMP );
+
+		final int edge = mIndicatorEdgeColor | 0xFF000000;
+		mIndicatorShader = new LinearGradient( 0, 0, (int) Math.ceil( mTicksSize ), 0, new int[] { edge, mIndicatorColor | 0xFF000000,
+				edge }, new float[] { 0, 0.5f, 1 }, TileMode.REPEAT );
+
+		mShadersDirty = false;
+		mTintsDirty = true;
 	}
 
 	@Override
 	protected void onDraw( Canvas canvas ) {
+		final WheelMetrics metrics = mMetrics;
+		final long start = metrics != null ? System.nanoTime() : 0;
+
 		super.onDraw( canvas );
 
 		if ( mShader3 != null ) {
 			canvas.setDrawFilter( mDF );
 
 			final int w = mWidth;
-			int total = mTicksCount;
 			float x2;
-			float scale, scale2;
+			float scale2;
+
+			if ( mShadersDirty ) {
+				updateShaders();
+			}
+
+			// with the vignette baked in the static layer, ticks and indicator are tinted as if it was drawn over them
+			final boolean baked = isVignetteBaked();
+			if ( baked && mTintsDirty ) {
+				updateTints();
+			}
 
 			mPaint.setShader( null );
+			mPaint.setColor( mTicksColor );
 
-			for ( int i = 0; i < total; i++ ) {
-				float x = ( mOriginalDeltaX + ( ( (float) i / total ) * w ) );
+			final int position = mModel.getPosition();
 
-				if ( x < 0 ) {
-					x = w - ( -x % w );
-				} else {
-					x = x % w;
-				}
+			if ( mTicksAtlas != null ) {
+				drawTicksAtlas( canvas, position, baked ? mTicksBandShaders : null );
+			} else if ( mTicksMesh != null ) {
+				// the mesh is baked with the ticks color, alpha included
+				mPaint.setAlpha( 0xFF );
+				drawTicksMesh( canvas, position );
+			} else {
+				mPaint.setShader( mTicksShader );
+				drawTicks( canvas, position, baked ? mTintFilters : null );
+			}
 
-				scale = (float) mTicksEasing.easeInOut( x, 0, 1.0, mWidth );
-				scale2 = (float) ( Math.sin( Math.PI * ( x / mWidth ) ) );
+			float indicatorx = getIndicatorX( position );
+
+			if ( indicatorx >= 0 ) {
+
+				x2 = (float) mTicksEasing.easeInOut( indicatorx, 0, mWidth, w );
+				scale2 = (float) ( Math.sin( Math.PI * ( indicatorx / mWidth ) ) );
 
 				mDrawMatrix.reset();
 				mDrawMatrix.setScale( scale2, 1 );
-				mDrawMatrix.postTranslate( (int) ( scale * mWidth ) - ( mTicksSize / 2 ), 0 );
-				canvas.drawBitmap( mTickBitmap, mDrawMatrix, mPaint );
+				mDrawMatrix.postTranslate( x2 - ( mTicksSize / 2 ), 0 );
+
+				// the body gradient follows the indicator, so the shaders are drawn in the bitmap space
+				final int saveCount = canvas.save();
+				canvas.concat( mDrawMatrix );
+				mPaint.setColor( mIndicatorColor );
+				mPaint.setColorFilter( baked ? mTintFilters[getTintIndex( x2 / w )] : null );
+				mPaint.setShader( mIndicatorShader );
+				canvas.drawBitmap( mIndicator, 0, 0, mPaint );
+				mPaint.setShader( mIndicatorBevelShader );
+				canvas.drawBitmap( mIndicator, 0, 0, mPaint );
+				mPaint.setColorFilter( null );
+				canvas.restoreToCount( saveCount );
 			}
 
-			float indicatorx = ( mIndicatorX + mOriginalDeltaX );
+			mPaint.setShader( null );
 
-			if ( indicatorx < 0 ) {
-				indicatorx = ( mWidth * 2 ) - ( -indicatorx % ( mWidth * 2 ) );
-			} else {
-				indicatorx = indicatorx % ( mWidth * 2 );
+			if ( !baked ) {
+				mPaint.setColor( mVignetteColor );
+				mPaint.setShader( mShader3 );
+				canvas.drawPaint( mPaint );
+			}
+
+			mRendered = true;
+			mRenderedTicks = getTicksRenderKey( position );
+			mRenderedIndicator = Float.floatToIntBits( indicatorx );
+			mRenderedWidth = mWidth;
+			mRenderedHeight = mHeight;
+			mRenderedFilter = mDF;
+		}
+
+		if ( metrics != null ) {
+			metrics.recordDraw( System.nanoTime() - start );
+		}
+	}
+
+	/**
+	 * Gets the unscaled position of the value indicator for the given scroll position.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @return the indicator position, or -1 if the indicator is not visible
+	 */
+	float getIndicatorX( int deltaX ) {
+		float indicatorx = ( mIndicatorX + deltaX );
+
+		if ( indicatorx < 0 ) {
+			indicatorx = ( mWidth * 2 ) - ( -indicatorx % ( mWidth * 2 ) );
+		} else {
+			indicatorx = indicatorx % ( mWidth * 2 );
+		}
+		return indicatorx > 0 && indicatorx < mWidth ? indicatorx : -1;
+	}
+
+	/**
+	 * Gets the part of the ticks state which depends on the scroll position: the atlas phase with the atlas renderer, the scroll
+	 * position itself otherwise.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @return the ticks render key
+	 */
+	long getTicksRenderKey( int deltaX ) {
+		return mTicksAtlas != null ? getAtlasPhase( deltaX ) : deltaX;
+	}
+
+	/**
+	 * Tells if drawing the given scroll position would produce exactly the last frame drawn: same ticks, same indicator position,
+	 * same size and same draw filter. Any other change of the appearance invalidates the view on its own.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @return true if a new frame is not needed
+	 */
+	boolean isRendered( int deltaX ) {
+		return mRendered && mRenderedWidth == mWidth && mRenderedHeight == mHeight && mRenderedFilter == mDF
+				&& mRenderedTicks == getTicksRenderKey( deltaX ) && mRenderedIndicator == Float.floatToIntBits( getIndicatorX( deltaX ) );
+	}
+
+	/**
+	 * Draw all the ticks for the given scroll position.
+	 * 
+	 * @param canvas
+	 *           the canvas
+	 * @param deltaX
+	 *           the scroll position
+	 * @param tints
+	 *           the tick color filter by horizontal position, null to draw every tick with the paint as it is
+	 */
+	private void drawTicks( Canvas canvas, float deltaX, ColorFilter[] tints ) {
+		final int w = mWidth;
+		final int total = mTicksCount;
+
+		computeTicks( deltaX );
+
+		for ( int i = 0; i < total; i++ ) {
+			if ( tints != null ) {
+				mPaint.setColorFilter( tints[getTintIndex( mTicksPosition[i] )] );
 			}
+			mDrawMatrix.reset();
+			mDrawMatrix.setScale( mTicksScale[i], 1 );
+			mDrawMatrix.postTranslate( (int) ( mTicksPosition[i] * w ) - ( mTicksSize / 2 ), 0 );
+			canvas.drawBitmap( mTickBitmap, mDrawMatrix, mPaint );
+		}
+
+		if ( tints != null ) {
+			mPaint.setColorFilter( null );
+		}
+	}
+
+	/**
+	 * Gets the entry of the tint tables for a horizontal position.
+	 * 
+	 * @param position
+	 *           the position, between 0 and 1
+	 * @return the table index
+	 */
+	static int getTintIndex( float position ) {
+		int index = (int) ( position * ( TINT_LUT_SIZE - 1 ) + 0.5f );
+		return index < 0 ? 0 : ( index >= TINT_LUT_SIZE ? TINT_LUT_SIZE - 1 : index );
+	}
+
+	/**
+	 * Alpha of the vignette mask at a horizontal position.
+	 * 
+	 * @param position
+	 *           the position, between 0 and 1
+	 * @return the alpha, between 0 and 1
+	 */
+	static float getVignetteAlpha( float position ) {
+		float fade;
+		if ( position < VIGNETTE_EDGE ) {
+			fade = 1f - position / VIGNETTE_EDGE;
+		} else if ( position > 1f - VIGNETTE_EDGE ) {
+			fade = ( position - ( 1f - VIGNETTE_EDGE ) ) / VIGNETTE_EDGE;
+		} else {
+			return 0;
+		}
+		return Math.min( Math.max( fade, 0 ), 1 ) * VIGNETTE_ALPHA / 255f;
+	}
+
+	/**
+	 * Compute the color a pixel of the given color gets once the vignette is drawn over it.
+	 * 
+	 * @param color
+	 *           the color
+	 * @param position
+	 *           the horizontal position, between 0 and 1
+	 * @return the tinted color, with the same alpha of the original one
+	 */
+	int applyVignette( int color, float position ) {
+		final float a = getVignetteAlpha( position ) * Color.alpha( mVignetteColor ) / 255f;
+		final float b = 1f - a;
+		return Color.argb( Color.alpha( color ), (int) ( Color.red( color ) * b + Color.red( mVignetteColor ) * a + 0.5f ),
+				(int) ( Color.green( color ) * b + Color.green( mVignetteColor ) * a + 0.5f ),
+				(int) ( Color.blue( color ) * b + Color.blue( mVignetteColor ) * a + 0.5f ) );
+	}
+
+	/**
+	 * Rebuild the tint table of the ticks and of the indicator, and the shaders of the ticks atlas bands.
+	 */
+	private void updateTints() {
+		if ( mTintFilters == null ) {
+			mTintFilters = new ColorFilter[TINT_LUT_SIZE];
+			mTicksBandShaders = new Shader[3];
+		}
+
+		// multiply and add of the filter are exactly the blending of the vignette over the tick
+		for ( int i = 0; i < TINT_LUT_SIZE; i++ ) {
+			float position = (float) i / ( TINT_LUT_SIZE - 1 );
+			int add = applyVignette( 0xFF000000, position );
+			int multiply = applyVignette( 0xFFFFFFFF, position ) - add;
+			mTintFilters[i] = new LightingColorFilter( multiply & 0xFFFFFF, add & 0xFFFFFF );
+		}
+
+		// the vignette alpha is linear between these stops, and so is the tinted color
+		final float[] positions = { 0f, VIGNETTE_EDGE, 1f - VIGNETTE_EDGE, 1f };
+		// the paint alpha is applied over the shader colors
+		final int[] bands = { getShadowColor( mTicksColor ) | 0xFF000000, mTicksColor | 0xFF000000, BEVEL_HIGHLIGHT_COLOR };
+		for ( int j = 0; j < bands.length; j++ ) {
+			final int[] colors = new int[positions.length];
+			for ( int i = 0; i < positions.length; i++ ) {
+				colors[i] = applyVignette( bands[j], positions[i] );
+			}
+			mTicksBandShaders[j] = new LinearGradient( 0, 0, mWidth, 0, colors, positions, TileMode.CLAMP );
+		}
+		mTintsDirty = false;
+	}
+
+	/**
+	 * Compute the x, position and horizontal scale of every tick for the given scroll position.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @return the index of the leftmost tick
+	 */
+	private int computeTicks( float deltaX ) {
+		return WheelMath.computeTicks( deltaX, mWidth, mTicksCount, mTicksEasing, mTicksX, mTicksPosition, mTicksScale );
+	}
+
+	/**
+	 * Draw all the ticks with a single bitmap mesh. The mesh bitmap holds one tick every two columns, so every even column pair of
+	 * the mesh maps to a tick and every odd one to a transparent gap. Ticks are laid out from left to right, starting from the
+	 * leftmost one, so that the mesh never folds over itself. Tick columns include the transparent border around the tick, scaled
+	 * with it.
+	 * 
+	 * @param canvas
+	 *           the canvas
+	 * @param deltaX
+	 *           the scroll position
+	 */
+	private void drawTicksMesh( Canvas canvas, int deltaX ) {
+		final int w = mWidth;
+		final int total = mTicksCount;
+		final int columns = total * 2;
+		final float[] verts = mMeshVerts;
+		final float tickWidth = mTickBitmap.getWidth() + MESH_TICK_BORDER * 2;
+		final float height = mTickBitmap.getHeight();
+
+		int first = computeTicks( deltaX );
+
+		for ( int j = 0; j < total; j++ ) {
+			int i = ( first + j ) % total;
+			float left = (int) ( mTicksPosition[i] * w ) - ( mTicksSize / 2 ) - MESH_TICK_BORDER * mTicksScale[i];
+			float right = left + tickWidth * mTicksScale[i];
+
+			int top = j * 4;
+			int bottom = ( columns + j * 2 ) * 2;
+
+			verts[top] = left;
+			verts[top + 1] = 0;
+			verts[top + 2] = right;
+			verts[top + 3] = 0;
+
+			verts[bottom] = left;
+			verts[bottom + 1] = height;
+			verts[bottom + 2] = right;
+			verts[bottom + 3] = height;
+		}
+
+		canvas.drawBitmapMesh( mTicksMesh, columns - 1, 1, verts, 0, null, 0, mPaint );
+	}
+
+	/**
+	 * Make the mesh bitmap: one tick every two slots of the tick width, with transparent slots in between. Every tick has a
+	 * transparent border of {@link #MESH_TICK_BORDER} pixels. Ticks are already colored with the ticks shader and the alpha of
+	 * the ticks color, so the mesh is drawn with an opaque paint.
+	 * 
+	 * @param tick
+	 *           the tick bitmap
+	 * @param count
+	 *           the ticks count
+	 * @return the bitmap
+	 */
+	private Bitmap makeTicksMesh( Bitmap tick, int count ) {
+		int width = tick.getWidth() + MESH_TICK_BORDER * 2;
+
+		Bitmap bm = Bitmap.createBitmap( width * ( count * 2 - 1 ), tick.getHeight(), Bitmap.Config.ARGB_8888 );
+		Canvas c = new Canvas( bm );
+		Paint p = new Paint( Paint.FILTER_BITMAP_FLAG );
+		p.setColor( mTicksColor );
+		p.setShader( mTicksShader );
+
+		for ( int i = 0; i < count; i++ ) {
+			c.drawBitmap( tick, i * 2 * width + MESH_TICK_BORDER, 0, p );
+		}
+		return bm;
+	}
+
+	/**
+	 * Draw the ticks strip using the pre-baked phase closest to the given scroll position.
+	 * 
+	 * @param canvas
+	 *           the canvas
+	 * @param deltaX
+	 *           the scroll position
+	 * @param bands
+	 *           the shaders of the top bevel, body and bottom bevel rows, null to draw the whole strip with the ticks shader
+	 */
+	private void drawTicksAtlas( Canvas canvas, int deltaX, Shader[] bands ) {
+		final int top = getAtlasPhase( deltaX ) * mHeight;
+
+		if ( bands == null ) {
+			mPaint.setShader( mTicksShader );
+			drawAtlasRows( canvas, top, 0, mHeight );
+		} else {
+			// the tint changes horizontally and the bevel vertically: one draw per band of rows
+			mPaint.setShader( bands[0] );
+			drawAtlasRows( canvas, top, 0, mBevelTop );
+			mPaint.setShader( bands[1] );
+			drawAtlasRows( canvas, top, mBevelTop, mBevelBottom );
+			mPaint.setShader( bands[2] );
+			drawAtlasRows( canvas, top, mBevelBottom, mHeight );
+		}
+	}
+
+	/**
+	 * Draw a range of rows of the given atlas phase.
+	 * 
+	 * @param canvas
+	 *           the canvas
+	 * @param phaseTop
+	 *           the first atlas row of the phase
+	 * @param from
+	 *           the first row, included
+	 * @param to
+	 *           the last row, excluded
+	 */
+	private void drawAtlasRows( Canvas canvas, int phaseTop, int from, int to ) {
+		mAtlasSrc.set( 0, phaseTop + from, mWidth, phaseTop + to );
+		mAtlasDst.set( 0, from, mWidth, to );
+		canvas.drawBitmap( mTicksAtlas, mAtlasSrc, mAtlasDst, mPaint );
+	}
+
+	/**
+	 * The ticks strip only depends on the scroll position modulo the tick space. Returns the index of the baked phase nearest to
+	 * the given scroll position.
+	 * 
+	 * @param deltaX
+	 *           the scroll position
+	 * @return the atlas phase index
+	 */
+	int getAtlasPhase( int deltaX ) {
+		final float tickSpace = mModel.getTickSpace();
+		float phase = deltaX % tickSpace;
+		if ( phase < 0 ) {
+			phase += tickSpace;
+		}
+		return Math.round( ( phase / tickSpace ) * mAtlasPhases ) % mAtlasPhases;
+	}
+
+	/**
+	 * Bake the ticks strip for every quantized phase into a single vertical atlas.
+	 * 
+	 * @param width
+	 *           the width
+	 * @param height
+	 *           the height
+	 * @return the atlas bitmap
+	 */
+	private Bitmap makeTicksAtlas( int width, int height ) {
+
+		final int phases = mAtlasPhases;
+
+		if ( phases < 1 ) {
+			return null;
+		}
+
+		Bitmap bm = Bitmap.createBitmap( width, height * phases, Bitmap.Config.ALPHA_8 );
+		Canvas c = new Canvas( bm );
+		mPaint.setShader( null );
+		mPaint.setColorFilter( null );
+		mPaint.setColor( 0xFF000000 );
+
+		for ( int i = 0; i < phases; i++ ) {
+			int saveCount = c.save();
+			c.translate( 0, i * height );
+			drawTicks( c, ( (float) i / phases ) * mModel.getTickSpace(), null );
+			c.restoreToCount( saveCount );
+		}
+
+		return bm;
+	}
+
+	/**
+	 * Compute the number of phases which can be baked into the ticks atlas.
+	 * 
+	 * @param width
+	 *           the width
+	 * @param height
+	 *           the height
+	 * @return the phases count, 0 if not even one phase fits a texture: the ticks are then drawn one by one
+	 */
+	private int computeAtlasPhases( int width, int height ) {
+		if ( width > MAX_ATLAS_TEXTURE_SIZE ) {
+			return 0;
+		}
+		int phases = Math.min( (int) Math.ceil( mModel.getTickSpace() ), MAX_ATLAS_PHASES );
+		phases = Math.min( phases, MAX_ATLAS_TEXTURE_SIZE / Math.max( height, 1 ) );
+		return Math.min( phases, MAX_ATLAS_BYTES / Math.max( width * height, 1 ) );
+	}
+
+	/**
+	 * Make the bitmap for the given asset.
+	 * 
+	 * @param asset
+	 *           the asset
+	 * @param width
+	 *           the width
+	 * @param height
+	 *           the height
+	 * @return the bitmap
+	 */
+	private Bitmap makeAsset( int asset, int width, int height ) {
+		switch ( asset ) {
+			case ASSET_TICK:
+				return makeTickerBitmap( width, height );
+			case ASSET_INDICATOR:
+				return makeTickerBitmap( width, height );
+			case ASSET_VIGNETTE:
+				return makeBitmap3( width, height );
+			case ASSET_ATLAS:
+				return makeTicksAtlas( width, height );
+			case ASSET_MESH:
+				return makeTicksMesh( mTickBitmap, mTicksCount );
+		}
+		return null;
+	}
+
+	/**
+	 * Get the bitmap for the given asset from the shared cache, creating it if needed, and release the one previously used for
+	 * the same asset. Nothing happens if the key, and so the inputs of the asset, did not change.
+	 * 
+	 * @param asset
+	 *           the asset
+	 * @param key
+	 *           the cache key. It must identify all the inputs of the asset
+	 * @param width
+	 *           the width
+	 * @param height
+	 *           the height
+	 * @param current
+	 *           the bitmap currently used for the asset
+	 * @return the bitmap
+	 */
+	private Bitmap obtainAsset( int asset, String key, int width, int height, Bitmap current ) {
+		if ( current != null && key.equals( mAssetKeys[asset] ) ) {
+			return current;
+		}
+
+		Bitmap bm = SharedBitmapCache.acquire( key );
+		if ( bm == null ) {
+			bm = SharedBitmapCache.put( key, makeAsset( asset, width, height ) );
+		}
+		SharedBitmapCache.release( mAssetKeys[asset] );
+		mAssetKeys[asset] = bm != null ? key : null;
+		return bm;
+	}
+
+	/**
+	 * Release the bitmap used for the given asset.
+	 * 
+	 * @param asset
+	 *           the asset
+	 */
+	private void releaseAsset( int asset ) {
+		SharedBitmapCache.release( mAssetKeys[asset] );
+		mAssetKeys[asset] = null;
+	}
+
+	/**
+	 * Enable or disable the static layer. When enabled the background and the vignette, which do not change while the wheel
+	 * scrolls, are baked once into a single bitmap, drawn as the view background, and every frame only draws the ticks and the
+	 * indicator over it. The layer is baked again only when the size, the background or the colors change.
+	 * <p>
+	 * While enabled {@link #getBackground()} returns the drawable of the layer, wrapping the actual background. With
+	 * {@link #TICKS_RENDER_MESH} only the background is baked and the vignette is still drawn on every frame.
+	 * 
+	 * @param enabled
+	 *           true to enable the static layer
+	 */
+	public void setStaticLayerEnabled( boolean enabled ) {
+		if ( enabled == ( mStaticLayer != null ) ) return;
+
+		if ( enabled ) {
+			mStaticLayer = new StaticLayer( getBackground() );
+			super.setBackgroundDrawable( mStaticLayer );
+		} else {
+			Drawable background = mStaticLayer.getSource();
+			mStaticLayer.release();
+			mStaticLayer = null;
+			super.setBackgroundDrawable( background );
+		}
+		mTintsDirty = true;
+		invalidate();
+	}
 
-			if ( indicatorx > 0 && indicatorx < mWidth ) {
+	/**
+	 * Gets whether the static layer is enabled.
+	 * 
+	 * @return true if the static layer is enabled
+	 */
+	public boolean isStaticLayerEnabled() {
+		return mStaticLayer != null;
+	}
 
-				x2 = (float) mTicksEasing.easeInOut( indicatorx, 0, mWidth, w );
-				scale2 = (float) ( Math.sin( Math.PI * ( indicatorx / mWidth ) ) );
+	@Override
+	public void setBackgroundDrawable( Drawable background ) {
+		final StaticLayer layer = mStaticLayer;
+		if ( layer != null && background != layer ) {
+			layer.setSource( background );
+			background = background != null ? layer : null;
+		}
+		super.setBackgroundDrawable( background );
+	}
 
-				mDrawMatrix.reset();
-				mDrawMatrix.setScale( scale2, 1 );
-				mDrawMatrix.postTranslate( x2 - ( mTicksSize / 2 ), 0 );
-				canvas.drawBitmap( mIndicator, mDrawMatrix, mPaint );
-			}
+	@Override
+	public boolean isOpaque() {
+		// the view caches the opacity of the background when it is set, while the gradient colors are changed in place
+		final Drawable background = getBackground();
+		return super.isOpaque() && background != null && background.getOpacity() == PixelFormat.OPAQUE;
+	}
 
-			mPaint.setShader( mShader3 );
-			canvas.drawPaint( mPaint );
-		}
+	/**
+	 * Tells if the vignette has been baked in the static layer for the current frame.
+	 * 
+	 * @return true if the vignette pass must be skipped
+	 */
+	boolean isVignetteBaked() {
+		return mStaticLayer != null && getBackground() == mStaticLayer && mStaticLayer.hasVignette();
 	}
 
 	/**
@@ -452,9 +1490,22 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 */
 	public void setBackgroundColors( int[] colors, float[] positions ) {
 		if ( colors != null && positions != null && colors.length == positions.length ) {
-			mBgColors = colors;
-			mBgPositions = positions;
-			setBackgroundDrawable( new LinearGradientDrawable( Orientation.LEFT_RIGHT, mBgColors, mBgPositions ) );
+			// the gradient keeps the arrays, and its shader is cached by their content
+			mBgColors = colors.clone();
+			mBgPositions = positions.clone();
+
+			Drawable background = mStaticLayer != null ? mStaticLayer.getSource() : getBackground();
+			if ( background instanceof LinearGradientDrawable ) {
+				// update the current gradient in place, setting the colors invalidates it
+				LinearGradientDrawable gradient = (LinearGradientDrawable) background;
+				gradient.mutate();
+				gradient.setColors( mBgColors, mBgPositions );
+				if ( mStaticLayer != null ) {
+					mStaticLayer.invalidateLayer();
+				}
+			} else {
+				setBackgroundDrawable( new LinearGradientDrawable( Orientation.LEFT_RIGHT, mBgColors, mBgPositions ) );
+			}
 		}
 	}
 
@@ -465,12 +1516,27 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 *           the new wheel scale factor
 	 */
 	public void setWheelScaleFactor( int value ) {
+		if ( value == mWheelSizeFactor ) return;
 		mWheelSizeFactor = value;
 		mForceLayout = true;
 		requestLayout();
 		postInvalidate();
 	}
 
+	/**
+	 * Sets the number of ticks displayed.
+	 * 
+	 * @param value
+	 *           the new ticks count
+	 */
+	public void setTicks( int value ) {
+		if ( value == mTicksCount ) return;
+		mTicksCount = value;
+		mForceLayout = true;
+		requestLayout();
+		postInvalidate();
+	}
+
 
 	/**
 	 * Gets the wheel scale factor.
@@ -487,41 +1553,273 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * @return the tick space
 	 */
 	public float getTickSpace() {
-		return mTickSpace;
+		return mModel.getTickSpace();
+	}
+
+	/**
+	 * Change the way ticks are rendered.
+	 * 
+	 * @param mode
+	 *           one of {@link #TICKS_RENDER_DEFAULT}, {@link #TICKS_RENDER_ATLAS} or {@link #TICKS_RENDER_MESH}
+	 */
+	public void setTicksRenderMode( int mode ) {
+		if ( mode != mTicksRenderMode ) {
+			mTicksRenderMode = mode;
+			if ( mStaticLayer != null ) {
+				// the vignette is not baked with the mesh renderer
+				mStaticLayer.invalidateLayer();
+			}
+			mForceLayout = true;
+			requestLayout();
+			postInvalidate();
+		}
+	}
+
+	/**
+	 * Gets the current ticks render mode.
+	 * 
+	 * @return the ticks render mode
+	 */
+	public int getTicksRenderMode() {
+		return mTicksRenderMode;
+	}
+
+	/**
+	 * Change the color of the ticks.
+	 * 
+	 * @param color
+	 *           the new color
+	 */
+	public void setTicksColor( int color ) {
+		if ( color != mTicksColor ) {
+			mTicksColor = color;
+			mShadersDirty = true;
+			if ( mTicksRenderMode == TICKS_RENDER_MESH ) {
+				// the mesh bitmap is pre-tinted
+				mForceLayout = true;
+				requestLayout();
+			}
+			postInvalidate();
+		}
+	}
+
+	/**
+	 * Gets the color of the ticks.
+	 * 
+	 * @return the ticks color
+	 */
+	public int getTicksColor() {
+		return mTicksColor;
+	}
+
+	/**
+	 * Change the color of the value indicator. The indicator is drawn with a gradient from a darker shade of the color at its
+	 * edges to the color itself at its center.
+	 * 
+	 * @param color
+	 *           the new color
+	 */
+	public void setIndicatorColor( int color ) {
+		mIndicatorColor = color;
+		mIndicatorEdgeColor = getShadowColor( color );
+		mShadersDirty = true;
+		postInvalidate();
+	}
+
+	/**
+	 * Gets the color of the value indicator.
+	 * 
+	 * @return the indicator color
+	 */
+	public int getIndicatorColor() {
+		return mIndicatorColor;
 	}
 
 	@Override
 	protected void onLayout( boolean changed, int left, int top, int right, int bottom ) {
+		final WheelMetrics metrics = mMetrics;
+		final long start = metrics != null ? System.nanoTime() : 0;
+
 		super.onLayout( changed, left, top, right, bottom );
 
 		mInLayout = true;
 
-		if ( changed || mForceLayout ) {
+		// views recycled in lists are laid out again when reattached: the wheel only depends on its size
+		if ( mForceLayout || changed && ( right - left != mWidth || bottom - top != mHeight ) ) {
 
 			mWidth = right - left;
 			mHeight = bottom - top;
 
-			mTickSpace = (float) mWidth / mTicksCount;
+			mModel.setLayout( mWidth, mTicksCount, mWheelSizeFactor );
 			mTicksSize = mWidth / mTicksCount / 4.0f;
 			mTicksSize = Math.min( Math.max( mTicksSize, 3.5f ), 6.0f );
 
 			mIndicatorX = (float) mWidth / 2.0f;
 
-			mMaxX = mWidth * mWheelSizeFactor;
+			if ( mTicksX == null || mTicksX.length < mTicksCount ) {
+				mTicksX = new float[mTicksCount];
+				mTicksPosition = new float[mTicksCount];
+				mTicksScale = new float[mTicksCount];
+			}
 
-			mIndicator = makeBitmapIndicator( (int) Math.ceil( mTicksSize ), bottom - top );
-			mTickBitmap = makeTickerBitmap( (int) Math.ceil( mTicksSize ), bottom - top );
-			mShader3 = new BitmapShader( makeBitmap3( right - left, bottom - top ), Shader.TileMode.CLAMP, Shader.TileMode.REPEAT );
+			obtainAssets();
 
-			mMinX = -mMaxX;
+			if ( !Float.isNaN( mBoundValue ) ) {
+				mModel.setPosition( mModel.getPosition( mBoundValue ) );
+				mBoundValue = Float.NaN;
+			}
 
-			if ( null != mLayoutListener ) {
-				mLayoutListener.onLayout( this );
+			final OnLayoutListener[] listeners = mLayoutListeners;
+			for ( int i = 0; i < listeners.length; i++ ) {
+				listeners[i].onLayout( this );
 			}
 		}
 
 		mInLayout = false;
 		mForceLayout = false;
+
+		if ( metrics != null ) {
+			metrics.recordLayout( System.nanoTime() - start );
+		}
+	}
+
+	/**
+	 * Obtain the bitmap assets for the current size, ticks and render mode, from the {@link SharedBitmapCache} or creating them.
+	 */
+	private void obtainAssets() {
+		mAssetsTrimmed = false;
+		mObtainingAssets = true;
+
+		final int tickWidth = (int) Math.ceil( mTicksSize );
+		final String size = tickWidth + "x" + mHeight;
+
+		// the indicator uses the same mask of the ticks
+		mIndicator = obtainAsset( ASSET_INDICATOR, "wheel-tick-" + size, tickWidth, mHeight, mIndicator );
+		Bitmap tick = obtainAsset( ASSET_TICK, "wheel-tick-" + size, tickWidth, mHeight, mTickBitmap );
+		if ( tick != mTickBitmap || mShadersDirty ) {
+			mTickBitmap = tick;
+			updateShaders();
+		}
+
+		String key = "wheel-vignette-" + mWidth + "x" + mHeight;
+		Bitmap vignette = obtainAsset( ASSET_VIGNETTE, key, mWidth, mHeight, mVignette );
+		mTintsDirty = true;
+		if ( vignette != mVignette || mShader3 == null ) {
+			if ( mStaticLayer != null ) {
+				mStaticLayer.invalidateLayer();
+			}
+			mVignette = vignette;
+			mShader3 = SharedBitmapCache.getShader( key );
+			if ( mShader3 == null ) {
+				mShader3 = new BitmapShader( mVignette, Shader.TileMode.CLAMP, Shader.TileMode.REPEAT );
+				SharedBitmapCache.setShader( key, mShader3 );
+			}
+		}
+
+		if ( mTicksRenderMode == TICKS_RENDER_ATLAS ) {
+			mAtlasPhases = computeAtlasPhases( mWidth, mHeight );
+			mTicksAtlas = obtainAsset( ASSET_ATLAS, "wheel-atlas-" + mWidth + "x" + mHeight + "-" + mTicksCount + "-" + mAtlasPhases,
+					mWidth, mHeight, mTicksAtlas );
+		} else {
+			mTicksAtlas = null;
+			releaseAsset( ASSET_ATLAS );
+		}
+
+		if ( mTicksRenderMode == TICKS_RENDER_MESH && mTicksCount > 0 ) {
+			mTicksMesh = obtainAsset( ASSET_MESH, "wheel-mesh-" + size + "-" + mTicksCount + "-" + Integer.toHexString( mTicksColor ),
+					tickWidth, mHeight, mTicksMesh );
+			int vertsCount = ( mTicksCount * 2 ) * 2 * 2;
+			if ( mMeshVerts == null || mMeshVerts.length < vertsCount ) {
+				mMeshVerts = new float[vertsCount];
+			}
+		} else {
+			mTicksMesh = null;
+			releaseAsset( ASSET_MESH );
+		}
+		mObtainingAssets = false;
+	}
+
+	@Override
+	public void draw( Canvas canvas ) {
+		if ( mAssetsTrimmed && mWidth > 0 ) {
+			obtainAssets();
+		}
+		super.draw( canvas );
+	}
+
+	/**
+	 * Release the bitmap assets, given back to the {@link SharedBitmapCache}. They are obtained again the next time the wheel is
+	 * drawn, usually without being created again if the cache still holds them. Called when the wheel is detached, or by the cache
+	 * while the wheel is not visible.
+	 */
+	@Override
+	public void trimAssets() {
+		if ( mStaticLayer != null ) {
+			mStaticLayer.release();
+		}
+
+		if ( mAssetsTrimmed || mObtainingAssets || mShader3 == null ) return;
+
+		for ( int i = 0; i < ASSET_COUNT; i++ ) {
+			releaseAsset( i );
+		}
+		mTickBitmap = null;
+		mIndicator = null;
+		mVignette = null;
+		mShader3 = null;
+		mTicksAtlas = null;
+		mTicksMesh = null;
+		mRendered = false;
+		mAssetsTrimmed = true;
+		invalidate();
+	}
+
+	/**
+	 * Gets the size of the bitmaps held by this wheel. Bitmaps shared with other wheels are counted by every wheel using them.
+	 * 
+	 * @return the size, in bytes
+	 */
+	public int getAssetBytes() {
+		int bytes = SharedBitmapCache.sizeOf( mTickBitmap ) + SharedBitmapCache.sizeOf( mVignette )
+				+ SharedBitmapCache.sizeOf( mTicksAtlas ) + SharedBitmapCache.sizeOf( mTicksMesh );
+		if ( mIndicator != mTickBitmap ) {
+			bytes += SharedBitmapCache.sizeOf( mIndicator );
+		}
+		if ( mStaticLayer != null ) {
+			bytes += mStaticLayer.getBytes();
+		}
+		return bytes;
+	}
+
+	@Override
+	protected void onWindowVisibilityChanged( int visibility ) {
+		super.onWindowVisibilityChanged( visibility );
+		SharedBitmapCache.setHidden( this, visibility != VISIBLE );
+	}
+
+	@Override
+	protected void onAttachedToWindow() {
+		super.onAttachedToWindow();
+
+		mAttached = true;
+		if ( mPendingValue.get() != NO_PENDING_VALUE ) {
+			schedulePendingValue();
+		}
+	}
+
+	@Override
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+
+		// the pending value, if any, is applied once attached again
+		mAttached = false;
+		removeCallbacks( mPendingValueApplier );
+
+		mHapticFeedback.cancel();
+
+		// give the assets back to the cache: once attached again they are taken back, or rebuilt if evicted meanwhile
+		SharedBitmapCache.setHidden( this, false );
+		trimAssets();
 	}
 
 	/*
@@ -532,6 +1830,7 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	@Override
 	public boolean onDown( MotionEvent event ) {
 		mDF = mFast;
+		mScrollTarget = NO_SCROLL_TARGET;
 		mFlingRunnable.stop( false );
 		mIsFirstScroll = true;
 		return true;
@@ -555,20 +1854,16 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	public boolean onFling( MotionEvent event0, MotionEvent event1, float velocityX, float velocityY ) {
 
 		boolean toleft = velocityX < 0;
+		final int position = mModel.getPosition();
+		final int distance = mModel.getBoundsDistance();
 
-		if ( !toleft ) {
-			if ( mOriginalDeltaX > mMaxX ) {
-				mFlingRunnable.startUsingDistance( mOriginalDeltaX, mMaxX - mOriginalDeltaX );
-				return true;
-			}
-		} else {
-			if ( mOriginalDeltaX < mMinX ) {
-				mFlingRunnable.startUsingDistance( mOriginalDeltaX, mMinX - mOriginalDeltaX );
-				return true;
-			}
+		// flinging further past the bounds springs back instead
+		if ( ( !toleft && distance < 0 ) || ( toleft && distance > 0 ) ) {
+			mFlingRunnable.startUsingDistance( position, distance );
+			return true;
 		}
 
-		mFlingRunnable.startUsingVelocity( mOriginalDeltaX, (int) velocityX / 2 );
+		mFlingRunnable.startUsingVelocity( position, (int) velocityX / 2 );
 		return true;
 	}
 
@@ -599,20 +1894,7 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 
 		mIsFirstScroll = false;
 
-		float delta = -1 * distanceX;
-		mToLeft = delta < 0;
-
-		if ( !mToLeft ) {
-			if ( mOriginalDeltaX + delta > mMaxX ) {
-				delta /= ( ( (float) mOriginalDeltaX + delta ) - mMaxX ) / 10;
-			}
-		} else {
-			if ( mOriginalDeltaX + delta < mMinX ) {
-				delta /= -( ( (float) mOriginalDeltaX + delta ) - mMinX ) / 10;
-			}
-		}
-
-		trackMotionScroll( (int) ( mOriginalDeltaX + delta ) );
+		trackMotionScroll( mModel.computeScroll( distanceX ) );
 		return true;
 	}
 
@@ -662,9 +1944,22 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 */
 	@Override
 	public void trackMotionScroll( int newX ) {
-		mOriginalDeltaX = newX;
+		// same position, as in the rubber band region and at the tail of a fling: neither the frame nor the value change
+		if ( newX == mModel.getPosition() ) {
+			if ( mMetrics != null ) {
+				mMetrics.recordSkippedFrame();
+			}
+			return;
+		}
+
+		mModel.setPosition( newX );
 		scrollRunning();
-		invalidate();
+
+		if ( !isRendered( newX ) ) {
+			invalidate();
+		} else if ( mMetrics != null ) {
+			mMetrics.recordSkippedFrame();
+		}
 	}
 
 	/**
@@ -677,16 +1972,7 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * @return the limited motion scroll amount
 	 */
 	int getLimitedMotionScrollAmount( boolean motionToLeft, int deltaX ) {
-
-		if ( motionToLeft ) {} else {
-			if ( mMaxX >= mOriginalDeltaX ) {
-				// The extreme child is past his boundary point!
-				return deltaX;
-			}
-		}
-
-		int centerDifference = mOriginalDeltaX - mMaxX;
-		return motionToLeft ? Math.max( centerDifference, deltaX ) : Math.min( centerDifference, deltaX );
+		return mModel.getLimitedMotionScrollAmount( motionToLeft, deltaX );
 	}
 
 	/**
@@ -699,24 +1985,20 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 			return;
 		}
 
-		if ( mOriginalDeltaX > mMaxX ) {
-			mFlingRunnable.startUsingDistance( mOriginalDeltaX, mMaxX - mOriginalDeltaX );
-			return;
-		} else if ( mOriginalDeltaX < mMinX ) {
-			mFlingRunnable.startUsingDistance( mOriginalDeltaX, mMinX - mOriginalDeltaX );
-			return;
+		if ( mScrollTarget != NO_SCROLL_TARGET ) {
+			// an animated value posted with postValue is kept exact, as when applied without animation
+			final boolean reached = mScrollTarget == mModel.getPosition();
+			mScrollTarget = NO_SCROLL_TARGET;
+			if ( reached ) {
+				onFinishedMovement();
+				return;
+			}
 		}
 
-		int diff = Math.round( mOriginalDeltaX % mTickSpace );
-		int diff2 = (int) ( mTickSpace - diff );
-		int diff3 = (int) ( mTickSpace + diff );
+		int distance = mModel.getSnapDistance();
 
-		if ( diff != 0 && diff2 != 0 && diff3 != 0 ) {
-			if ( Math.abs( diff ) < ( mTickSpace / 2 ) ) {
-				mFlingRunnable.startUsingDistance( mOriginalDeltaX, -diff );
-			} else {
-				mFlingRunnable.startUsingDistance( mOriginalDeltaX, (int) ( mToLeft ? -diff3 : diff2 ) );
-			}
+		if ( distance != 0 ) {
+			mFlingRunnable.startUsingDistance( mModel.getPosition(), distance );
 		} else {
 			onFinishedMovement();
 		}
@@ -729,17 +2011,8 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 		scrollCompleted();
 	}
 
-	/**
-	 * Gets the real width.
-	 * 
-	 * @return the real width
-	 */
-	private int getRealWidth() {
-		return ( getWidth() - mPaddingLeft - mPaddingRight );
-	}
-
-	/** The m scroll selection notifier. */
-	ScrollSelectionNotifier mScrollSelectionNotifier;
+	/** The m scroll selection notifier, allocated once so that no scroll step allocates. */
+	final ScrollSelectionNotifier mScrollSelectionNotifier = new ScrollSelectionNotifier();
 
 	/**
 	 * The Class ScrollSelectionNotifier.
@@ -753,7 +2026,7 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 		 */
 		@Override
 		public void run() {
-			if ( mShader3 == null ) {
+			if ( mShader3 == null && !mAssetsTrimmed ) {
 				post( this );
 			} else {
 				fireOnScrollCompleted();
@@ -765,11 +2038,8 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * Scroll completed.
 	 */
 	void scrollCompleted() {
-		if ( mScrollListener != null ) {
+		if ( mScrollListeners.length > 0 ) {
 			if ( mInLayout ) {
-				if ( mScrollSelectionNotifier == null ) {
-					mScrollSelectionNotifier = new ScrollSelectionNotifier();
-				}
 				post( mScrollSelectionNotifier );
 			} else {
 				fireOnScrollCompleted();
@@ -781,11 +2051,8 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * Scroll started.
 	 */
 	void scrollStarted() {
-		if ( mScrollListener != null ) {
+		if ( mScrollListeners.length > 0 ) {
 			if ( mInLayout ) {
-				if ( mScrollSelectionNotifier == null ) {
-					mScrollSelectionNotifier = new ScrollSelectionNotifier();
-				}
 				post( mScrollSelectionNotifier );
 			} else {
 				fireOnScrollStarted();
@@ -797,11 +2064,8 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * Scroll running.
 	 */
 	void scrollRunning() {
-		if ( mScrollListener != null ) {
+		if ( mScrollListeners.length > 0 ) {
 			if ( mInLayout ) {
-				if ( mScrollSelectionNotifier == null ) {
-					mScrollSelectionNotifier = new ScrollSelectionNotifier();
-				}
 				post( mScrollSelectionNotifier );
 			} else {
 				fireOnScrollRunning();
@@ -815,10 +2079,17 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * @return the value
 	 */
 	public float getValue() {
-		int w = getRealWidth();
-		int position = mOriginalDeltaX;
-		float value = (float) position / ( w * mWheelSizeFactor );
-		return value;
+		return mModel.getValue();
+	}
+
+	/**
+	 * Gets the model holding the position, the bounds and the value mapping of the wheel. The model is owned and updated by the
+	 * wheel on the UI thread: use a {@link WheelModel#WheelModel(WheelModel) copy} to work on it from other threads.
+	 * 
+	 * @return the model
+	 */
+	public WheelModel getModel() {
+		return mModel;
 	}
 
 	/**
@@ -827,7 +2098,7 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * @return the tick value
 	 */
 	int getTickValue() {
-		return (int) ( ( getCurrentPage() * mTicksCount ) + ( mOriginalDeltaX % mWidth ) / mTickSpace );
+		return mModel.getTickValue();
 	}
 
 	/**
@@ -836,11 +2107,7 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * @return the ticks count
 	 */
 	public int getTicksCount() {
-		try {
-			return (int) ( ( ( mMaxX / mWidth ) * mTicksCount ) + ( mOriginalDeltaX % mWidth ) / mTickSpace ) * 2;
-		} catch ( ArithmeticException e ) {
-			return 0;
-		}
+		return mModel.getTicksCount();
 	}
 
 	/**
@@ -858,21 +2125,36 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 	 * @return the current page
 	 */
 	int getCurrentPage() {
-		return ( mOriginalDeltaX / mWidth );
+		return mModel.getCurrentPage();
 	}
 
 	/**
 	 * Fire on scroll completed.
 	 */
 	private void fireOnScrollCompleted() {
-		mScrollListener.onScrollFinished( this, getValue(), getTickValue() );
+		if ( mScrollDispatchPending ) {
+			// deliver the pending scroll before the completion
+			removeCallbacks( mScrollDispatcher );
+			mScrollDispatcher.run();
+		}
+		final OnScrollListener[] listeners = mScrollListeners;
+		final float value = getValue();
+		final int tickValue = getTickValue();
+		for ( int i = 0; i < listeners.length; i++ ) {
+			listeners[i].onScrollFinished( this, value, tickValue );
+		}
 	}
 
 	/**
 	 * Fire on scroll started.
 	 */
 	private void fireOnScrollStarted() {
-		mScrollListener.onScrollStarted( this, getValue(), getTickValue() );
+		final OnScrollListener[] listeners = mScrollListeners;
+		final float value = getValue();
+		final int tickValue = getTickValue();
+		for ( int i = 0; i < listeners.length; i++ ) {
+			listeners[i].onScrollStarted( this, value, tickValue );
+		}
 	}
 
 	/**
@@ -882,25 +2164,240 @@ public class Wheel extends View implements OnGestureListener, FlingRunnableView,
 
 		int value = getTickValue();
 
-		if ( value != mLastMotionValue ) {
-			if ( mVibrationHandler != null ) {
-				mVibrationHandler.sendEmptyMessage( MSG_VIBRATE );
+		boolean tickChanged = value != mLastMotionValue;
+
+		if ( tickChanged ) {
+			mHapticFeedback.schedule();
+		}
+		mLastMotionValue = value;
+
+		if ( mScrollListeners.length == 0 ) {
+			return;
+		}
+
+		switch ( mScrollDispatchMode ) {
+			case SCROLL_DISPATCH_TICK:
+				if ( tickChanged ) {
+					dispatchOnScroll();
+				}
+				break;
+
+			case SCROLL_DISPATCH_FRAME:
+				if ( !mScrollDispatchPending ) {
+					mScrollDispatchPending = true;
+					if ( android.os.Build.VERSION.SDK_INT >= 16 ) {
+						postOnAnimation( mScrollDispatcher );
+					} else {
+						post( mScrollDispatcher );
+					}
+				}
+				break;
+
+			case SCROLL_DISPATCH_ADAPTIVE:
+				long elapsed = System.nanoTime() - mLastDispatchTime;
+				if ( elapsed >= mDispatchInterval ) {
+					if ( mScrollDispatchPending ) {
+						removeCallbacks( mScrollDispatcher );
+						mScrollDispatchPending = false;
+					}
+					dispatchOnScroll();
+				} else if ( !mScrollDispatchPending ) {
+					// make sure the latest value is delivered
+					mScrollDispatchPending = true;
+					postDelayed( mScrollDispatcher, ( mDispatchInterval - elapsed ) / 1000000L + 1 );
+				}
+				break;
+
+			default:
+				dispatchOnScroll();
+				break;
+		}
+	}
+
+	/**
+	 * Call the scroll listener with the current value, measuring how long the listener takes.
+	 */
+	private void dispatchOnScroll() {
+		long start = System.nanoTime();
+		final OnScrollListener[] listeners = mScrollListeners;
+		final float value = getValue();
+		final int tickValue = getTickValue();
+		for ( int i = 0; i < listeners.length; i++ ) {
+			listeners[i].onScroll( this, value, tickValue );
+		}
+		mLastDispatchTime = System.nanoTime();
+
+		final WheelMetrics metrics = mMetrics;
+		if ( metrics != null ) {
+			metrics.recordDispatch( mLastDispatchTime - start );
+		}
+
+		if ( mScrollDispatchMode == SCROLL_DISPATCH_ADAPTIVE ) {
+			mDispatchInterval = Math.min( ( mLastDispatchTime - start ) * 2, MAX_ADAPTIVE_DISPATCH_INTERVAL );
+		}
+	}
+
+	/**
+	 * Delivers the coalesced scroll events.
+	 */
+	private class ScrollDispatcher implements Runnable {
+
+		@Override
+		public void run() {
+			mScrollDispatchPending = false;
+			if ( mScrollListeners.length > 0 ) {
+				dispatchOnScroll();
 			}
 		}
+	}
+
+	/**
+	 * Background drawable baking the actual background and the vignette into one bitmap, drawn with a single blit.
+	 */
+	private class StaticLayer extends Drawable {
+
+		private Drawable mSource;
+		private Bitmap mLayer;
+		private boolean mDirty = true;
+		private boolean mReleased;
+		private WeakReference<Bitmap> mReleasedLayer;
+		private boolean mHasVignette;
+		private final Paint mLayerPaint = new Paint( Paint.FILTER_BITMAP_FLAG );
+
+		StaticLayer( Drawable source ) {
+			mSource = source;
+		}
 
-		if ( null != mScrollListener ) {
-			mScrollListener.onScroll( this, getValue(), value );
+		Drawable getSource() {
+			return mSource;
+		}
+
+		void setSource( Drawable source ) {
+			mSource = source;
+			invalidateLayer();
+		}
+
+		boolean hasVignette() {
+			return mHasVignette && !mDirty;
+		}
+
+		/**
+		 * Bake the layer again on the next draw.
+		 */
+		void invalidateLayer() {
+			mDirty = true;
+			invalidateSelf();
+		}
+
+		/**
+		 * Give the layer bitmap back to the {@link SharedBitmapCache} pool. Only a weak reference is kept, so that the bitmap can
+		 * be freed once evicted from the pool.
+		 */
+		void release() {
+			if ( !mReleased ) {
+				mReleased = true;
+				if ( mLayer != null ) {
+					SharedBitmapCache.recycle( mLayer );
+					mReleasedLayer = new WeakReference<Bitmap>( mLayer );
+					mLayer = null;
+				}
+			}
+		}
+
+		/**
+		 * Take back the layer bitmap given back by {@link #release()}. If the pool no longer holds it, the layer is baked again on
+		 * the next draw.
+		 */
+		void retain() {
+			if ( mReleased ) {
+				mReleased = false;
+				final Bitmap layer = mReleasedLayer != null ? mReleasedLayer.get() : null;
+				mReleasedLayer = null;
+				if ( layer != null && SharedBitmapCache.reclaim( layer ) ) {
+					mLayer = layer;
+				} else {
+					mDirty = true;
+				}
+			}
+		}
+
+		int getBytes() {
+			return SharedBitmapCache.sizeOf( mLayer );
+		}
+
+		@Override
+		public void draw( Canvas canvas ) {
+			final Rect bounds = getBounds();
+			if ( bounds.isEmpty() ) return;
+
+			if ( mReleased ) {
+				retain();
+			}
+			if ( mDirty || mLayer == null ) {
+				bake( bounds.width(), bounds.height() );
+			}
+			canvas.drawBitmap( mLayer, bounds.left, bounds.top, mLayerPaint );
+		}
+
+		private void bake( int width, int height ) {
+			if ( mLayer == null || mLayer.getWidth() != width || mLayer.getHeight() != height ) {
+				SharedBitmapCache.recycle( mLayer );
+				mLayer = SharedBitmapCache.obtain( width, height, Bitmap.Config.ARGB_8888 );
+			}
+
+			if ( mLayer == null ) {
+				mLayer = Bitmap.createBitmap( width, height, Bitmap.Config.ARGB_8888 );
+			} else {
+				mLayer.eraseColor( 0 );
+			}
+
+			Canvas c = new Canvas( mLayer );
+			if ( mSource != null ) {
+				mSource.setBounds( 0, 0, width, height );
+				mSource.draw( c );
+			}
+
+			mHasVignette = mShader3 != null && mTicksRenderMode != TICKS_RENDER_MESH;
+			if ( mHasVignette ) {
+				Paint p = new Paint( Paint.FILTER_BITMAP_FLAG );
+				p.setColor( mVignetteColor );
+				p.setShader( mShader3 );
+				c.drawPaint( p );
+			}
+			mDirty = false;
+		}
+
+		@Override
+		protected void onBoundsChange( Rect bounds ) {
+			super.onBoundsChange( bounds );
+			mDirty = true;
+		}
+
+		@Override
+		public int getOpacity() {
+			return mSource != null ? mSource.getOpacity() : PixelFormat.TRANSPARENT;
+		}
+
+		@Override
+		public void setAlpha( int alpha ) {
+			mLayerPaint.setAlpha( alpha );
+			invalidateSelf();
+		}
+
+		@Override
+		public void setColorFilter( ColorFilter cf ) {
+			mLayerPaint.setColorFilter( cf );
+			invalidateSelf();
 		}
-		mLastMotionValue = value;
 	}
 
 	@Override
 	public int getMinX() {
-		return mMinX;
+		return mModel.getMinX();
 	}
 
 	@Override
 	public int getMaxX() {
-		return mMaxX;
+		return mModel.getMaxX();
 	}
 }
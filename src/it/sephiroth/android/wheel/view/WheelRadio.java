@@ -1,17 +1,15 @@
 package it.sephiroth.android.wheel.view;
 
 import it.sephiroth.android.wheel.R;
+import it.sephiroth.android.wheel.graphics.SharedBitmapCache;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
-import android.graphics.BitmapShader;
 import android.graphics.Canvas;
 import android.graphics.DrawFilter;
 import android.graphics.Paint;
 import android.graphics.PaintFlagsDrawFilter;
 import android.graphics.Rect;
-import android.graphics.RectF;
-import android.graphics.Shader;
 import android.util.AttributeSet;
 import android.view.View;
 
@@ -19,15 +17,53 @@ import android.view.View;
 /**
  * The Class WheelRadio.
  */
-public class WheelRadio extends View {
+public class WheelRadio extends View implements SharedBitmapCache.AssetOwner {
 
 	static final String LOG_TAG = "wheel-radio";
 
-	Bitmap mIndicatorBig, mIndicatorSmall;
-	Shader mShader;
-	Shader mShader1;
-	Bitmap mIndicator;
+	/**
+	 * Lightweight snapshot of the value and of the ticks of a wheel radio. Keep one with every item of a list and bind it to the
+	 * recycled views with {@link WheelRadio#setState(State)}: when the ticks do not change, only the value is applied and the view
+	 * is not laid out again.
+	 */
+	public static final class State {
+
+		private final float mValue;
+		private final int mSmallTicks;
+		private final int mBigTicks;
+
+		/**
+		 * Instantiates a new state.
+		 * 
+		 * @param value
+		 *           the value, between -1.0f and 1.0f
+		 * @param smallTicks
+		 *           the number of small ticks intervals
+		 * @param bigTicks
+		 *           the number of big ticks intervals
+		 */
+		public State( float value, int smallTicks, int bigTicks ) {
+			mValue = Math.min( Math.max( value, -1 ), 1 );
+			mSmallTicks = smallTicks;
+			mBigTicks = bigTicks;
+		}
+
+		public float getValue() {
+			return mValue;
+		}
+
+		public int getSmallTicks() {
+			return mSmallTicks;
+		}
+
+		public int getBigTicks() {
+			return mBigTicks;
+		}
+	}
+
+	Bitmap mStrip;
 	Paint mPaint;
+	Paint mIndicatorPaint;
 	DrawFilter mFast;
 	int mPaddingLeft = 10;
 	int mPaddingRight = 10;
@@ -35,11 +71,13 @@ public class WheelRadio extends View {
 	int mLineBigSize = 3;
 	int mSmallTicksCount = 10;
 	int mBigTicksCount = 1;
-	float mCorrectionX = 0;
 	Rect mRealRect;
+	int mWidth, mHeight;
 	boolean mForceLayout;
 	float mValue = 0;
 	int mValueIndicatorColor, mSmallIndicatorColor, mBigIndicatorColor;
+	String mStripKey;
+	boolean mAssetsTrimmed;
 
 	/**
 	 * Instantiates a new wheel radio.
@@ -91,6 +129,7 @@ public class WheelRadio extends View {
 	private void init( Context context, AttributeSet attrs, int defStyle ) {
 		mFast = new PaintFlagsDrawFilter( Paint.FILTER_BITMAP_FLAG | Paint.DITHER_FLAG, 0 );
 		mPaint = new Paint( Paint.FILTER_BITMAP_FLAG );
+		mIndicatorPaint = new Paint( Paint.ANTI_ALIAS_FLAG );
 
 		TypedArray a = context.obtainStyledAttributes( attrs, R.styleable.WheelRadio, defStyle, 0 );
 		mSmallTicksCount = a.getInteger( R.styleable.WheelRadio_smallTicks, 25 ) - 1;
@@ -99,6 +138,8 @@ public class WheelRadio extends View {
 		mSmallIndicatorColor = a.getColor( R.styleable.WheelRadio_smallIndicatorColor, 0x33FFFFFF );
 		mBigIndicatorColor = a.getColor( R.styleable.WheelRadio_bigIndicatorColor, 0x66FFFFFF );
 		a.recycle();
+
+		SharedBitmapCache.registerComponentCallbacks( context );
 	}
 
 	/**
@@ -110,6 +151,7 @@ public class WheelRadio extends View {
 	 *           the value2
 	 */
 	public void setTicksNumber( int value, int value2 ) {
+		if ( value == mSmallTicksCount && value2 == mBigTicksCount ) return;
 		mSmallTicksCount = value;
 		mBigTicksCount = value2;
 		mForceLayout = true;
@@ -121,56 +163,141 @@ public class WheelRadio extends View {
 	protected void onLayout( boolean changed, int left, int top, int right, int bottom ) {
 		super.onLayout( changed, left, top, right, bottom );
 
-		int w = right - left;
+		final int w = right - left;
+		final int h = bottom - top;
+
+		// views recycled in lists are laid out again when reattached: the strip only depends on the size
+		if ( w > 0 && ( mForceLayout || changed && ( w != mWidth || h != mHeight ) ) ) {
+			mWidth = w;
+			mHeight = h;
+			mRealRect = new Rect( mPaddingLeft, 0, w - mPaddingRight, h );
+
+			obtainStrip();
 
-		if ( w > 0 && changed || mForceLayout ) {
-			mRealRect = new Rect( mPaddingLeft, top, w - mPaddingRight, bottom );
-			mIndicatorSmall = makeBitmap2( w / mSmallTicksCount, bottom - top, mLineTickSize );
-			mShader = new BitmapShader( mIndicatorSmall, Shader.TileMode.REPEAT, Shader.TileMode.CLAMP );
-			mIndicatorBig = makeBitmap3( mRealRect.width() / mBigTicksCount, bottom - top, mLineBigSize );
-			mShader1 = new BitmapShader( mIndicatorBig, Shader.TileMode.REPEAT, Shader.TileMode.CLAMP );
-			mIndicator = makeIndicator( bottom - top, mLineBigSize );
-			mCorrectionX = (((float)mRealRect.width() / mBigTicksCount) % 1)*mBigTicksCount;
+			mIndicatorPaint.setColor( mValueIndicatorColor );
 			mForceLayout = false;
 		}
 	}
 
+	/**
+	 * Obtain the scale strip for the current size and ticks, from the {@link SharedBitmapCache} or creating it.
+	 */
+	private void obtainStrip() {
+		mAssetsTrimmed = false;
+
+		final int w = mWidth;
+		final int h = mHeight;
+		String key = "radio-strip-" + w + "x" + h + "-" + mPaddingLeft + "-" + mPaddingRight + "-" + mSmallTicksCount + "-"
+				+ mBigTicksCount + "-" + mLineTickSize + "-" + mLineBigSize + "-" + Integer.toHexString( mSmallIndicatorColor ) + "-"
+				+ Integer.toHexString( mBigIndicatorColor );
+
+		if ( mStrip == null || !key.equals( mStripKey ) ) {
+			Bitmap strip = SharedBitmapCache.acquire( key );
+			if ( strip == null ) {
+				strip = SharedBitmapCache.put( key, makeStrip( w, h ) );
+			}
+			SharedBitmapCache.release( mStripKey );
+			mStrip = strip;
+			mStripKey = strip != null ? key : null;
+		}
+	}
+
 	@Override
-	protected void onDraw( Canvas canvas ) {
-		super.onDraw( canvas );
-		
+	public void draw( Canvas canvas ) {
+		if ( mAssetsTrimmed && mWidth > 0 ) {
+			obtainStrip();
+		}
+		super.draw( canvas );
+	}
 
-		if ( mShader != null ) {
-			canvas.setDrawFilter( mFast );
+	/**
+	 * Release the scale strip, given back to the {@link SharedBitmapCache}. It is obtained again the next time the view is drawn.
+	 * Called when the view is detached, or by the cache while the view is not visible.
+	 */
+	@Override
+	public void trimAssets() {
+		if ( mStrip == null ) return;
+
+		SharedBitmapCache.release( mStripKey );
+		mStripKey = null;
+		mStrip = null;
+		mAssetsTrimmed = true;
+		invalidate();
+	}
 
-			int saveCount = canvas.save();
+	/**
+	 * Gets the size of the bitmaps held by this view. Bitmaps shared with other views are counted by every view using them.
+	 * 
+	 * @return the size, in bytes
+	 */
+	public int getAssetBytes() {
+		return SharedBitmapCache.sizeOf( mStrip );
+	}
 
-			mPaint.setShader( mShader );
-			canvas.drawRect( mRealRect, mPaint );
-			
-			canvas.translate( mPaddingLeft - mLineBigSize / 2, 0 );
-			mPaint.setShader( mShader1 );
-			canvas.drawPaint( mPaint );
+	@Override
+	protected void onWindowVisibilityChanged( int visibility ) {
+		super.onWindowVisibilityChanged( visibility );
+		SharedBitmapCache.setHidden( this, visibility != VISIBLE );
+	}
+
+	@Override
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+
+		// give the strip back to the cache: once attached again it is taken back, or rebuilt if evicted meanwhile
+		SharedBitmapCache.setHidden( this, false );
+		trimAssets();
+	}
 
-			mPaint.setShader( null );
+	@Override
+	protected void onDraw( Canvas canvas ) {
+		super.onDraw( canvas );
+
+		if ( mStrip != null ) {
+			canvas.setDrawFilter( mFast );
+			canvas.drawBitmap( mStrip, 0, 0, mPaint );
 
-			float rw = ((float) mRealRect.width() - (mCorrectionX)) / 2;
-			canvas.drawBitmap( mIndicator, ( rw + ( rw * mValue ) ), 0, mPaint );
-			canvas.restoreToCount( saveCount );
+			final float x = getIndicatorLeft( mValue );
+			canvas.drawRect( x, 0, x + mLineBigSize, getHeight(), mIndicatorPaint );
 		}
 	}
 
-	
+	/**
+	 * Gets the left edge of the value indicator, in view coordinates. The indicator is centered on the first big tick for -1
+	 * and on the last one for 1.
+	 * 
+	 * @param value
+	 *           the value
+	 * @return the indicator left
+	 */
+	private float getIndicatorLeft( float value ) {
+		return mRealRect.left + mRealRect.width() * ( value + 1 ) / 2 - mLineBigSize / 2f;
+	}
 
 	/**
-	 * Sets the current value.
+	 * Sets the current value. Only the area covered by the value indicator, before and after the change, is invalidated.
 	 * 
 	 * @param value
 	 *           the new value
 	 */
 	public void setValue( float value ) {
-		mValue = Math.min( Math.max( value, -1 ), 1 );
-		postInvalidate();
+		value = Math.min( Math.max( value, -1 ), 1 );
+		if ( value == mValue ) return;
+
+		final float oldValue = mValue;
+		mValue = value;
+
+		if ( mStrip == null ) {
+			postInvalidate();
+			return;
+		}
+
+		// the indicator is drawn anti aliased at fractional positions, so it can touch one more pixel on each side
+		final float oldLeft = getIndicatorLeft( oldValue );
+		final float newLeft = getIndicatorLeft( value );
+		final int left = (int) Math.floor( Math.min( oldLeft, newLeft ) ) - 1;
+		final int right = (int) Math.ceil( Math.max( oldLeft, newLeft ) + mLineBigSize ) + 1;
+		postInvalidate( left, 0, right, getHeight() );
 	}
 
 	/**
@@ -183,80 +310,76 @@ public class WheelRadio extends View {
 	}
 
 	/**
-	 * Make small indicator bitmap.
+	 * Gets a snapshot of the current value and ticks, to be bound again later with {@link #setState(State)}.
 	 * 
-	 * @param width
-	 *           the width
-	 * @param height
-	 *           the height
-	 * @param line_size
-	 *           the line_size
-	 * @return the bitmap
+	 * @return the state
 	 */
-	private Bitmap makeBitmap2( int width, int height, int line_size ) {
-		Bitmap bm = Bitmap.createBitmap( width, height, Bitmap.Config.ARGB_8888 );
-		Canvas c = new Canvas( bm );
-
-		int center_h = height * 2 / 3;
-
-		Paint p = new Paint( Paint.ANTI_ALIAS_FLAG );
-		p.setDither( true );
+	public State getState() {
+		return new State( mValue, mSmallTicksCount, mBigTicksCount );
+	}
 
-		p.setColor( mSmallIndicatorColor );
-		RectF rect = new RectF( 0, height - center_h, line_size, height - ( height - center_h ) );
-		c.drawRect( rect, p );
-		return bm;
+	/**
+	 * Bind a state, as when the view is recycled for another item of a list. The view is laid out again only if the ticks change,
+	 * otherwise only the value is applied.
+	 * 
+	 * @param state
+	 *           the state
+	 */
+	public void setState( State state ) {
+		setTicksNumber( state.getSmallTicks(), state.getBigTicks() );
+		setValue( state.getValue() );
 	}
 
 	/**
-	 * Make the big indicator bitmap.
+	 * Make the scale strip: the small and the big ticks composited once, placed at their exact fractional positions across the
+	 * available width.
 	 * 
 	 * @param width
 	 *           the width
 	 * @param height
 	 *           the height
-	 * @param line_size
-	 *           the line_size
 	 * @return the bitmap
 	 */
-	private Bitmap makeBitmap3( int width, int height, int line_size ) {
-
+	private Bitmap makeStrip( int width, int height ) {
 		Bitmap bm = Bitmap.createBitmap( width, height, Bitmap.Config.ARGB_8888 );
 		Canvas c = new Canvas( bm );
 
-		int center_h = height * 4 / 5;
-
 		Paint p = new Paint( Paint.ANTI_ALIAS_FLAG );
 		p.setDither( true );
 
+		p.setColor( mSmallIndicatorColor );
+		drawTicks( c, p, mSmallTicksCount, mLineTickSize, height / 3f, height * 2 / 3f );
+
 		p.setColor( mBigIndicatorColor );
-		RectF rect = new RectF( 0, height - center_h, line_size, height - ( height - center_h ) );
-		c.drawRect( rect, p );
+		drawTicks( c, p, mBigTicksCount, mLineBigSize, height / 5f, height * 4 / 5f );
 		return bm;
 	}
 
 	/**
-	 * Make current value indicator bitmap.
+	 * Draw a set of ticks evenly spaced across the available width, the first and the last one centered on its edges.
 	 * 
-	 * @param height
-	 *           the height
-	 * @param line_size
-	 *           the line_size
-	 * @return the bitmap
+	 * @param canvas
+	 *           the canvas
+	 * @param paint
+	 *           the paint
+	 * @param count
+	 *           the number of intervals between the ticks
+	 * @param lineSize
+	 *           the width of the ticks
+	 * @param top
+	 *           the ticks top
+	 * @param bottom
+	 *           the ticks bottom
 	 */
-	private Bitmap makeIndicator( int height, int line_size ) {
-
-		Bitmap bm = Bitmap.createBitmap( line_size, height, Bitmap.Config.ARGB_8888 );
-		Canvas c = new Canvas( bm );
+	private void drawTicks( Canvas canvas, Paint paint, int count, int lineSize, float top, float bottom ) {
+		if ( count < 1 ) return;
 
-		int center_h = height;
+		final float space = (float) mRealRect.width() / count;
+		final float half = lineSize / 2f;
 
-		Paint p = new Paint( Paint.ANTI_ALIAS_FLAG );
-		p.setDither( true );
-
-		p.setColor( mValueIndicatorColor );
-		RectF rect = new RectF( 0, height - center_h, line_size, height - ( height - center_h ) );
-		c.drawRect( rect, p );
-		return bm;
+		for ( int i = 0; i <= count; i++ ) {
+			float x = mRealRect.left + i * space;
+			canvas.drawRect( x - half, top, x + half, bottom, paint );
+		}
 	}
 }